@@ -1,6 +1,12 @@
 package com.limonnana.skate.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Properties specific to Skate 03.
@@ -10,4 +16,752 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Async async = new Async();
+
+    private final Cache cache = new Cache();
+
+    private final Compression compression = new Compression();
+
+    private final Jackson jackson = new Jackson();
+
+    private final Jwt jwt = new Jwt();
+
+    private final Mail mail = new Mail();
+
+    private final Mongo mongo = new Mongo();
+
+    private final Throttling throttling = new Throttling();
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public Jackson getJackson() {
+        return jackson;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Mongo getMongo() {
+        return mongo;
+    }
+
+    public Throttling getThrottling() {
+        return throttling;
+    }
+
+    public static class Async {
+
+        private final Pool mail = new Pool(2, 4, 500, RejectionPolicy.CALLER_RUNS);
+
+        private final Pool media = new Pool(2, 4, 50, RejectionPolicy.ABORT);
+
+        private final Pool audit = new Pool(1, 2, 1000, RejectionPolicy.CALLER_RUNS);
+
+        private final Pool analytics = new Pool(1, 2, 100, RejectionPolicy.DISCARD_OLDEST);
+
+        public Pool getMail() {
+            return mail;
+        }
+
+        public Pool getMedia() {
+            return media;
+        }
+
+        public Pool getAudit() {
+            return audit;
+        }
+
+        public Pool getAnalytics() {
+            return analytics;
+        }
+
+        /**
+         * What to do with a task submitted while all threads are busy and the queue is full.
+         */
+        public enum RejectionPolicy {
+            /** Throw a {@link java.util.concurrent.RejectedExecutionException} to the caller. */
+            ABORT,
+            /** Run the task on the calling thread, slowing down the producer. */
+            CALLER_RUNS,
+            /** Drop the task. */
+            DISCARD,
+            /** Drop the oldest queued task and queue this one. */
+            DISCARD_OLDEST
+        }
+
+        public static class Pool {
+
+            private int coreSize;
+
+            private int maxSize;
+
+            private int queueCapacity;
+
+            private Duration keepAlive = Duration.ofSeconds(60);
+
+            private RejectionPolicy rejectionPolicy;
+
+            Pool(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+                this.coreSize = coreSize;
+                this.maxSize = maxSize;
+                this.queueCapacity = queueCapacity;
+                this.rejectionPolicy = rejectionPolicy;
+            }
+
+            public int getCoreSize() {
+                return coreSize;
+            }
+
+            public void setCoreSize(int coreSize) {
+                this.coreSize = coreSize;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getKeepAlive() {
+                return keepAlive;
+            }
+
+            public void setKeepAlive(Duration keepAlive) {
+                this.keepAlive = keepAlive;
+            }
+
+            public RejectionPolicy getRejectionPolicy() {
+                return rejectionPolicy;
+            }
+
+            public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+                this.rejectionPolicy = rejectionPolicy;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        private long maximumSize = 1000;
+
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public static class Invalidation {
+
+            private boolean enabled = false;
+
+            private Duration resumeTokenSaveInterval = Duration.ofSeconds(5);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getResumeTokenSaveInterval() {
+                return resumeTokenSaveInterval;
+            }
+
+            public void setResumeTokenSaveInterval(Duration resumeTokenSaveInterval) {
+                this.resumeTokenSaveInterval = resumeTokenSaveInterval;
+            }
+        }
+    }
+
+    public static class Compression {
+
+        private boolean enabled = true;
+
+        private List<String> paths = new ArrayList<>(Arrays.asList("/api/event/active", "/api/trick/*"));
+
+        private List<String> mimeTypes = new ArrayList<>(Arrays.asList("application/json", "application/cbor", "application/x-jackson-smile"));
+
+        private DataSize minResponseSize = DataSize.ofBytes(1024);
+
+        private DataSize cacheSize = DataSize.ofMegabytes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public List<String> getMimeTypes() {
+            return mimeTypes;
+        }
+
+        public void setMimeTypes(List<String> mimeTypes) {
+            this.mimeTypes = mimeTypes;
+        }
+
+        public DataSize getMinResponseSize() {
+            return minResponseSize;
+        }
+
+        public void setMinResponseSize(DataSize minResponseSize) {
+            this.minResponseSize = minResponseSize;
+        }
+
+        public DataSize getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(DataSize cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+    }
+
+    public static class Jackson {
+
+        private boolean afterburner = true;
+
+        public boolean isAfterburner() {
+            return afterburner;
+        }
+
+        public void setAfterburner(boolean afterburner) {
+            this.afterburner = afterburner;
+        }
+    }
+
+    public static class Jwt {
+
+        private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+        private boolean profileClaims = true;
+
+        private final Keys keys = new Keys();
+
+        private final Revocation revocation = new Revocation();
+
+        public Duration getAccessTokenValidity() {
+            return accessTokenValidity;
+        }
+
+        public void setAccessTokenValidity(Duration accessTokenValidity) {
+            this.accessTokenValidity = accessTokenValidity;
+        }
+
+        public boolean isProfileClaims() {
+            return profileClaims;
+        }
+
+        public void setProfileClaims(boolean profileClaims) {
+            this.profileClaims = profileClaims;
+        }
+
+        public Keys getKeys() {
+            return keys;
+        }
+
+        public Revocation getRevocation() {
+            return revocation;
+        }
+
+        public static class Keys {
+
+            private Duration rotationInterval = Duration.ofDays(7);
+
+            private Duration syncInterval = Duration.ofMinutes(1);
+
+            private boolean acceptLegacyTokens = true;
+
+            public Duration getRotationInterval() {
+                return rotationInterval;
+            }
+
+            public void setRotationInterval(Duration rotationInterval) {
+                this.rotationInterval = rotationInterval;
+            }
+
+            public Duration getSyncInterval() {
+                return syncInterval;
+            }
+
+            public void setSyncInterval(Duration syncInterval) {
+                this.syncInterval = syncInterval;
+            }
+
+            public boolean isAcceptLegacyTokens() {
+                return acceptLegacyTokens;
+            }
+
+            public void setAcceptLegacyTokens(boolean acceptLegacyTokens) {
+                this.acceptLegacyTokens = acceptLegacyTokens;
+            }
+        }
+
+        public static class Revocation {
+
+            private Duration syncInterval = Duration.ofSeconds(10);
+
+            private Duration rebuildInterval = Duration.ofHours(1);
+
+            private long expectedRevocations = 100_000;
+
+            private double falsePositiveRate = 0.001;
+
+            public Duration getSyncInterval() {
+                return syncInterval;
+            }
+
+            public void setSyncInterval(Duration syncInterval) {
+                this.syncInterval = syncInterval;
+            }
+
+            public Duration getRebuildInterval() {
+                return rebuildInterval;
+            }
+
+            public void setRebuildInterval(Duration rebuildInterval) {
+                this.rebuildInterval = rebuildInterval;
+            }
+
+            public long getExpectedRevocations() {
+                return expectedRevocations;
+            }
+
+            public void setExpectedRevocations(long expectedRevocations) {
+                this.expectedRevocations = expectedRevocations;
+            }
+
+            public double getFalsePositiveRate() {
+                return falsePositiveRate;
+            }
+
+            public void setFalsePositiveRate(double falsePositiveRate) {
+                this.falsePositiveRate = falsePositiveRate;
+            }
+        }
+    }
+
+    public static class Mail {
+
+        private final Outbox outbox = new Outbox();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public static class Outbox {
+
+            private boolean enabled = true;
+
+            private Duration dispatchInterval = Duration.ofSeconds(5);
+
+            private int batchSize = 50;
+
+            private int maxAttempts = 5;
+
+            private Duration initialBackoff = Duration.ofSeconds(30);
+
+            private Duration maxBackoff = Duration.ofHours(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getDispatchInterval() {
+                return dispatchInterval;
+            }
+
+            public void setDispatchInterval(Duration dispatchInterval) {
+                this.dispatchInterval = dispatchInterval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(Duration initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public Duration getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(Duration maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+        }
+    }
+
+    public static class Mongo {
+
+        private final Pool pool = new Pool();
+
+        private final ReplicaReads replicaReads = new ReplicaReads();
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        private Duration socketTimeout = Duration.ZERO;
+
+        private Duration serverSelectionTimeout = Duration.ofSeconds(30);
+
+        private String readPreference = "primary";
+
+        private List<String> compressors = new ArrayList<>();
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        public ReplicaReads getReplicaReads() {
+            return replicaReads;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getSocketTimeout() {
+            return socketTimeout;
+        }
+
+        public void setSocketTimeout(Duration socketTimeout) {
+            this.socketTimeout = socketTimeout;
+        }
+
+        public Duration getServerSelectionTimeout() {
+            return serverSelectionTimeout;
+        }
+
+        public void setServerSelectionTimeout(Duration serverSelectionTimeout) {
+            this.serverSelectionTimeout = serverSelectionTimeout;
+        }
+
+        public String getReadPreference() {
+            return readPreference;
+        }
+
+        public void setReadPreference(String readPreference) {
+            this.readPreference = readPreference;
+        }
+
+        public List<String> getCompressors() {
+            return compressors;
+        }
+
+        public void setCompressors(List<String> compressors) {
+            this.compressors = compressors;
+        }
+
+        public static class ReplicaReads {
+
+            private boolean enabled = false;
+
+            private Duration maxStaleness = Duration.ofSeconds(90);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getMaxStaleness() {
+                return maxStaleness;
+            }
+
+            public void setMaxStaleness(Duration maxStaleness) {
+                this.maxStaleness = maxStaleness;
+            }
+        }
+
+        public static class Pool {
+
+            private int minSize = 0;
+
+            private int maxSize = 100;
+
+            private Duration maxWaitTime = Duration.ofMinutes(2);
+
+            private Duration maxConnectionIdleTime = Duration.ZERO;
+
+            private Duration maxConnectionLifeTime = Duration.ZERO;
+
+            public int getMinSize() {
+                return minSize;
+            }
+
+            public void setMinSize(int minSize) {
+                this.minSize = minSize;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getMaxWaitTime() {
+                return maxWaitTime;
+            }
+
+            public void setMaxWaitTime(Duration maxWaitTime) {
+                this.maxWaitTime = maxWaitTime;
+            }
+
+            public Duration getMaxConnectionIdleTime() {
+                return maxConnectionIdleTime;
+            }
+
+            public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+                this.maxConnectionIdleTime = maxConnectionIdleTime;
+            }
+
+            public Duration getMaxConnectionLifeTime() {
+                return maxConnectionLifeTime;
+            }
+
+            public void setMaxConnectionLifeTime(Duration maxConnectionLifeTime) {
+                this.maxConnectionLifeTime = maxConnectionLifeTime;
+            }
+        }
+    }
+
+    public static class Throttling {
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        private final Concurrency concurrency = new Concurrency();
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public Concurrency getConcurrency() {
+            return concurrency;
+        }
+
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            private long maxClients = 100_000;
+
+            private List<Route> routes = new ArrayList<>(Arrays.asList(
+                new Route("/api/event/active", 60, Duration.ofMinutes(1)),
+                new Route("/api/register", 10, Duration.ofHours(1)),
+                new Route("/api/account/reset-password/init", 5, Duration.ofHours(1))));
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxClients() {
+                return maxClients;
+            }
+
+            public void setMaxClients(long maxClients) {
+                this.maxClients = maxClients;
+            }
+
+            public List<Route> getRoutes() {
+                return routes;
+            }
+
+            public void setRoutes(List<Route> routes) {
+                this.routes = routes;
+            }
+
+            public static class Route {
+
+                private String path;
+
+                private int capacity;
+
+                private Duration refillPeriod;
+
+                public Route() {
+                }
+
+                public Route(String path, int capacity, Duration refillPeriod) {
+                    this.path = path;
+                    this.capacity = capacity;
+                    this.refillPeriod = refillPeriod;
+                }
+
+                public String getPath() {
+                    return path;
+                }
+
+                public void setPath(String path) {
+                    this.path = path;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public Duration getRefillPeriod() {
+                    return refillPeriod;
+                }
+
+                public void setRefillPeriod(Duration refillPeriod) {
+                    this.refillPeriod = refillPeriod;
+                }
+            }
+        }
+
+        public static class Concurrency {
+
+            private boolean enabled = true;
+
+            private List<String> paths = new ArrayList<>(Arrays.asList(
+                "/api/event/active", "/api/register", "/api/account/reset-password/init"));
+
+            private int initialLimit = 50;
+
+            private int minLimit = 5;
+
+            private int maxLimit = 200;
+
+            private Duration maxLatency = Duration.ofMillis(500);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+
+            public int getMinLimit() {
+                return minLimit;
+            }
+
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+
+            public Duration getMaxLatency() {
+                return maxLatency;
+            }
+
+            public void setMaxLatency(Duration maxLatency) {
+                this.maxLatency = maxLatency;
+            }
+        }
+    }
 }
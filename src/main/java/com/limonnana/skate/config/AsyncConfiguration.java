@@ -1,6 +1,10 @@
 package com.limonnana.skate.config;
 
 import io.github.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
@@ -14,18 +18,47 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 @EnableScheduling
 public class AsyncConfiguration implements AsyncConfigurer {
 
+    /**
+     * Executor of email rendering and queueing, use with {@code @Async(AsyncConfiguration.MAIL_EXECUTOR)}.
+     */
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+
+    /**
+     * Executor of image and video processing.
+     */
+    public static final String MEDIA_EXECUTOR = "mediaExecutor";
+
+    /**
+     * Executor of audit event persistence.
+     */
+    public static final String AUDIT_EXECUTOR = "auditExecutor";
+
+    /**
+     * Executor of best-effort statistics and analytics.
+     */
+    public static final String ANALYTICS_EXECUTOR = "analyticsExecutor";
+
     private final Logger log = LoggerFactory.getLogger(AsyncConfiguration.class);
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties,
+                              MeterRegistry meterRegistry) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -37,11 +70,99 @@ public class AsyncConfiguration implements AsyncConfigurer {
         executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
         executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
         executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
+        bindMetrics(executor, "task");
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    @Bean(name = MAIL_EXECUTOR)
+    public Executor mailExecutor() {
+        return createExecutor("mail", applicationProperties.getAsync().getMail());
+    }
+
+    @Bean(name = MEDIA_EXECUTOR)
+    public Executor mediaExecutor() {
+        return createExecutor("media", applicationProperties.getAsync().getMedia());
+    }
+
+    @Bean(name = AUDIT_EXECUTOR)
+    public Executor auditExecutor() {
+        return createExecutor("audit", applicationProperties.getAsync().getAudit());
+    }
+
+    @Bean(name = ANALYTICS_EXECUTOR)
+    public Executor analyticsExecutor() {
+        return createExecutor("analytics", applicationProperties.getAsync().getAnalytics());
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
     }
+
+    private Executor createExecutor(String name, ApplicationProperties.Async.Pool pool) {
+        log.debug("Creating {} Async Task Executor", name);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().getSeconds());
+        executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix() + name + "-");
+        executor.setRejectedExecutionHandler(countingRejections(name, rejectionHandler(pool.getRejectionPolicy())));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        bindMetrics(executor, name);
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(ApplicationProperties.Async.RejectionPolicy policy) {
+        switch (policy) {
+            case CALLER_RUNS:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD:
+                return new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST:
+                return new ThreadPoolExecutor.DiscardOldestPolicy();
+            default:
+                return new ThreadPoolExecutor.AbortPolicy();
+        }
+    }
+
+    private RejectedExecutionHandler countingRejections(String name, RejectedExecutionHandler handler) {
+        Counter rejections = Counter.builder("executor.rejected")
+            .description("The number of tasks rejected because the executor was saturated")
+            .tags(Tags.of("name", name))
+            .register(meterRegistry);
+        return (task, threadPoolExecutor) -> {
+            rejections.increment();
+            log.debug("{} executor saturated, applying {}", name, handler.getClass().getSimpleName());
+            handler.rejectedExecution(task, threadPoolExecutor);
+        };
+    }
+
+    /**
+     * The gauges read the executor lazily, as the thread pool is only created when the bean is initialized.
+     */
+    private void bindMetrics(ThreadPoolTaskExecutor executor, String name) {
+        Tags tags = Tags.of("name", name);
+        Gauge.builder("executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("The approximate number of threads actively executing tasks")
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge.builder("executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+            .description("The current number of threads in the pool")
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge.builder("executor.queued", executor, AsyncConfiguration::queueSize)
+            .description("The approximate number of tasks queued for execution")
+            .tags(tags)
+            .register(meterRegistry);
+    }
+
+    private static double queueSize(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException e) {
+            return 0;
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.limonnana.skate.config;
+
+import com.limonnana.skate.repository.PlayerRepository;
+import com.limonnana.skate.repository.SpotRepository;
+import com.limonnana.skate.repository.TrickRepository;
+import com.limonnana.skate.repository.UserRepository;
+import com.limonnana.skate.service.LeaderboardService;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+/**
+ * Local Caffeine caches, sized and expired according to {@link ApplicationProperties.Cache}.
+ * <p>
+ * Caches are declared up front so that Spring Boot binds their statistics to the meter registry,
+ * as {@code cache_gets_total{result="hit|miss"}} among others.
+ * Cached entities are shared instances: code changing one loads its own copy through the uncached
+ * {@code findOneById} of the repository, then saves it, which evicts it. Other caches are still created
+ * on first use.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache cache = applicationProperties.getCache();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(cache.getMaximumSize())
+            .expireAfterWrite(cache.getTimeToLive())
+            .recordStats());
+        for (String cacheName : Arrays.asList(
+            TrickRepository.TRICKS_BY_ID_CACHE,
+            SpotRepository.SPOTS_BY_ID_CACHE,
+            PlayerRepository.PLAYERS_BY_ID_CACHE,
+            UserRepository.ACCOUNTS_BY_LOGIN_CACHE,
+            LeaderboardService.TRICK_LEADERBOARD_CACHE,
+            LeaderboardService.EVENT_LEADERBOARD_CACHE)) {
+            cacheManager.getCache(cacheName);
+        }
+        return cacheManager;
+    }
+}
@@ -12,6 +12,12 @@ public final class Constants {
     public static final String DEFAULT_LANGUAGE = "en";
     public static final String ANONYMOUS_USER = "anonymoususer";
 
+    // Country calling code of the phone numbers written in national format
+    public static final String DEFAULT_COUNTRY_CALLING_CODE = "972";
+
+    // Media type of JSON Merge Patch (RFC 7396) request bodies
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private Constants() {
     }
 }
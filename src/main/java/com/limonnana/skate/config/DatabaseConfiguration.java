@@ -3,6 +3,7 @@ package com.limonnana.skate.config;
 import io.github.jhipster.config.JHipsterConstants;
 import com.github.mongobee.Mongobee;
 import com.mongodb.MongoClient;
+import com.mongodb.ReadPreference;
 import io.github.jhipster.domain.util.JSR310DateConverters.DateToZonedDateTimeConverter;
 import io.github.jhipster.domain.util.JSR310DateConverters.ZonedDateTimeToDateConverter;
 import org.slf4j.Logger;
@@ -14,15 +15,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.core.mapping.event.ValidatingMongoEventListener;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableMongoRepositories("com.limonnana.skate.repository")
@@ -31,6 +36,11 @@ import java.util.List;
 @EnableMongoAuditing(auditorAwareRef = "springSecurityAuditorAware")
 public class DatabaseConfiguration {
 
+    /**
+     * The smallest staleness MongoDB accepts.
+     */
+    private static final long MIN_MAX_STALENESS_SECONDS = 90;
+
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
     @Bean
@@ -51,6 +61,16 @@ public class DatabaseConfiguration {
         return new MongoCustomConversions(converters);
     }
 
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter, ApplicationProperties applicationProperties) {
+        Duration maxStaleness = applicationProperties.getMongo().getReplicaReads().getMaxStaleness();
+        if (maxStaleness.getSeconds() < MIN_MAX_STALENESS_SECONDS) {
+            throw new IllegalArgumentException("application.mongo.replica-reads.max-staleness must be at least " + MIN_MAX_STALENESS_SECONDS + "s");
+        }
+        return new ReplicaRoutingMongoTemplate(mongoDbFactory, mongoConverter,
+            ReadPreference.secondaryPreferred(maxStaleness.getSeconds(), TimeUnit.SECONDS));
+    }
+
     @Bean
     public Mongobee mongobee(MongoClient mongoClient, MongoTemplate mongoTemplate, MongoProperties mongoProperties) {
         log.debug("Configuring Mongobee");
@@ -1,10 +1,17 @@
 package com.limonnana.skate.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.zalando.problem.ProblemModule;
 import org.zalando.problem.violations.ConstraintViolationProblemModule;
 
@@ -25,6 +32,19 @@ public class JacksonConfiguration {
         return new Jdk8Module();
     }
 
+    /**
+     * Replaces the reflective getter, setter and constructor calls of bean properties by generated bytecode.
+     * <p>
+     * The output is the same as without it, only cheaper to produce for the nested {@code Event} graphs;
+     * disable it with {@code application.jackson.afterburner: false}.
+     * @return the corresponding Jackson module.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.jackson", name = "afterburner", havingValue = "true", matchIfMissing = true)
+    public AfterburnerModule afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
     /*
      * Module for serialization/deserialization of RFC7807 Problem.
      */
@@ -40,4 +60,24 @@ public class JacksonConfiguration {
     public ConstraintViolationProblemModule constraintViolationProblemModule() {
         return new ConstraintViolationProblemModule();
     }
+
+    /**
+     * Serves {@code application/cbor} to the clients asking for it, with the same modules and features as JSON.
+     * @param builder the builder configured by Spring Boot for the JSON {@code ObjectMapper}.
+     * @return the converter, which replaces the default one of Spring MVC.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Serves {@code application/x-jackson-smile} to the clients asking for it, with the same modules and features as JSON.
+     * @param builder the builder configured by Spring Boot for the JSON {@code ObjectMapper}.
+     * @return the converter, which replaces the default one of Spring MVC.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
 }
@@ -0,0 +1,101 @@
+package com.limonnana.skate.config;
+
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pool, timeout, read preference and compression settings of the MongoDB clients, from
+ * {@link ApplicationProperties.Mongo}.
+ * <p>
+ * The synchronous client is configured through its {@link MongoClientOptions}, the reactive client used by the
+ * change streams through a {@link MongoClientSettingsBuilderCustomizer}. Both publish the usage of their pool
+ * as {@code mongodb.driver.pool.*} metrics. The writes of the synchronous client pin the reads of their request
+ * to the primary, see {@link ReplicaReadRouting}.
+ */
+@Configuration
+public class MongoClientConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(MongoClientConfiguration.class);
+
+    private final ApplicationProperties.Mongo mongo;
+
+    public MongoClientConfiguration(ApplicationProperties applicationProperties) {
+        this.mongo = applicationProperties.getMongo();
+    }
+
+    @Bean
+    public ConnectionPoolListener mongoConnectionPoolListener(MeterRegistry meterRegistry) {
+        return new MongoMetricsConnectionPoolListener(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientOptions mongoClientOptions(ConnectionPoolListener mongoConnectionPoolListener) {
+        log.debug("Configuring MongoDB client: pool of {} to {} connections, read preference {}, compressors {}",
+            mongo.getPool().getMinSize(), mongo.getPool().getMaxSize(), mongo.getReadPreference(), mongo.getCompressors());
+        ApplicationProperties.Mongo.Pool pool = mongo.getPool();
+        return MongoClientOptions.builder()
+            .minConnectionsPerHost(pool.getMinSize())
+            .connectionsPerHost(pool.getMaxSize())
+            .maxWaitTime((int) pool.getMaxWaitTime().toMillis())
+            .maxConnectionIdleTime((int) pool.getMaxConnectionIdleTime().toMillis())
+            .maxConnectionLifeTime((int) pool.getMaxConnectionLifeTime().toMillis())
+            .connectTimeout((int) mongo.getConnectTimeout().toMillis())
+            .socketTimeout((int) mongo.getSocketTimeout().toMillis())
+            .serverSelectionTimeout((int) mongo.getServerSelectionTimeout().toMillis())
+            .readPreference(ReadPreference.valueOf(mongo.getReadPreference()))
+            .compressorList(compressors())
+            .addConnectionPoolListener(mongoConnectionPoolListener)
+            .addCommandListener(ReplicaReadRouting.pinningCommandListener())
+            .build();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientSettingsCustomizer(ConnectionPoolListener mongoConnectionPoolListener) {
+        ApplicationProperties.Mongo.Pool pool = mongo.getPool();
+        return (MongoClientSettings.Builder builder) -> builder
+            .applyToConnectionPoolSettings(settings -> settings
+                .minSize(pool.getMinSize())
+                .maxSize(pool.getMaxSize())
+                .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS)
+                .addConnectionPoolListener(mongoConnectionPoolListener))
+            .applyToSocketSettings(settings -> settings
+                .connectTimeout((int) mongo.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout((int) mongo.getSocketTimeout().toMillis(), TimeUnit.MILLISECONDS))
+            .applyToClusterSettings(settings -> settings
+                .serverSelectionTimeout(mongo.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+            .readPreference(ReadPreference.valueOf(mongo.getReadPreference()))
+            .compressorList(compressors());
+    }
+
+    private List<MongoCompressor> compressors() {
+        return mongo.getCompressors().stream()
+            .map(name -> {
+                switch (name.toLowerCase(Locale.ROOT)) {
+                    case "zlib":
+                        return MongoCompressor.createZlibCompressor();
+                    case "snappy":
+                        return MongoCompressor.createSnappyCompressor();
+                    default:
+                        throw new IllegalArgumentException("Unsupported MongoDB compressor " + name + ", use zlib or snappy");
+                }
+            })
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,67 @@
+package com.limonnana.skate.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Route the reads of the {@code GET} requests of {@link ReplicaReads} controllers to the secondaries.
+ * <p>
+ * Only the reads of the request thread are routed: asynchronous handlers release it as soon as they return,
+ * and choose the read preference of their reactive reads themselves.
+ */
+@Configuration
+public class ReplicaReadConfiguration implements WebMvcConfigurer {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaReadConfiguration.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    public ReplicaReadConfiguration(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (applicationProperties.getMongo().getReplicaReads().isEnabled()) {
+            log.debug("Routing read-only requests to the secondaries");
+            registry.addInterceptor(new ReplicaReadInterceptor());
+        }
+    }
+
+    static class ReplicaReadInterceptor implements AsyncHandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (HttpMethod.GET.matches(request.getMethod()) && handler instanceof HandlerMethod && isReplicaReads((HandlerMethod) handler)) {
+                ReplicaReadRouting.routeToReplicas();
+            }
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // Called instead of afterCompletion on the request thread, which then serves other requests
+            ReplicaReadRouting.clear();
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            ReplicaReadRouting.clear();
+        }
+
+        private static boolean isReplicaReads(HandlerMethod handlerMethod) {
+            return handlerMethod.hasMethodAnnotation(ReplicaReads.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), ReplicaReads.class);
+        }
+    }
+}
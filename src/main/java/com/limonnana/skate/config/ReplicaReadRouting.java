@@ -0,0 +1,111 @@
+package com.limonnana.skate.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Routing of the MongoDB reads of the current thread to the secondaries.
+ * <p>
+ * Routing is enabled for the duration of a read-only request. As soon as the request writes, its reads are
+ * pinned to the primary so that it reads its own writes. Reads that fill the local caches are run on the
+ * primary with {@link #onPrimary(Supplier)}, as a stale entry would outlive the staleness of the secondary.
+ */
+public final class ReplicaReadRouting {
+
+    private static final Set<String> WRITE_COMMANDS = new HashSet<>(Arrays.asList("insert", "update", "delete", "findAndModify"));
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReplicaReadRouting() {
+    }
+
+    /**
+     * Route the reads of the current thread to the secondaries, until {@link #clear()}.
+     */
+    public static void routeToReplicas() {
+        STATE.set(new State());
+    }
+
+    /**
+     * Stop routing the reads of the current thread.
+     */
+    public static void clear() {
+        STATE.remove();
+    }
+
+    /**
+     * Read from the primary for the rest of the request, after a write.
+     */
+    public static void pinToPrimary() {
+        State state = STATE.get();
+        if (state != null) {
+            state.pinned = true;
+        }
+    }
+
+    /**
+     * @return whether the reads of the current thread go to the secondaries.
+     */
+    public static boolean isRoutingToReplicas() {
+        State state = STATE.get();
+        return state != null && !state.pinned && state.primaryDepth == 0;
+    }
+
+    /**
+     * Run reads on the primary.
+     *
+     * @param reads the reads.
+     * @param <T>   the type of the result.
+     * @return the result of the reads.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        State state = STATE.get();
+        if (state == null) {
+            return reads.get();
+        }
+        state.primaryDepth++;
+        try {
+            return reads.get();
+        } finally {
+            state.primaryDepth--;
+        }
+    }
+
+    /**
+     * @return a listener of the synchronous client pinning the reads of a thread to the primary once it writes.
+     */
+    public static CommandListener pinningCommandListener() {
+        return new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if (WRITE_COMMANDS.contains(event.getCommandName())) {
+                    pinToPrimary();
+                }
+            }
+
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                // Nothing to do
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                // Nothing to do
+            }
+        };
+    }
+
+    private static final class State {
+
+        private boolean pinned;
+
+        private int primaryDepth;
+    }
+}
@@ -0,0 +1,19 @@
+package com.limonnana.skate.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the controllers, or controller methods, whose {@code GET} requests may read from secondary members of
+ * the replica set, when {@code application.mongo.replica-reads.enabled} is set.
+ *
+ * @see ReplicaReadRouting
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaReads {
+}
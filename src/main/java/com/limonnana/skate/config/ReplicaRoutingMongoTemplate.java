@@ -0,0 +1,35 @@
+package com.limonnana.skate.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * {@link MongoTemplate} reading from the secondaries while {@link ReplicaReadRouting} routes the current thread.
+ * <p>
+ * Lookups by id stay on the primary: they are cheap, and they fill the local caches of tricks, spots and
+ * players, which must not hold data older than the last eviction.
+ */
+public class ReplicaRoutingMongoTemplate extends MongoTemplate {
+
+    private final ReadPreference replicaReadPreference;
+
+    public ReplicaRoutingMongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter, ReadPreference replicaReadPreference) {
+        super(mongoDbFactory, mongoConverter);
+        this.replicaReadPreference = replicaReadPreference;
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> prepared = super.prepareCollection(collection);
+        return ReplicaReadRouting.isRoutingToReplicas() ? prepared.withReadPreference(replicaReadPreference) : prepared;
+    }
+
+    @Override
+    public <T> T findById(Object id, Class<T> entityClass, String collectionName) {
+        return ReplicaReadRouting.onPrimary(() -> super.findById(id, entityClass, collectionName));
+    }
+}
@@ -74,11 +74,13 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         .and()
             .authorizeRequests()
             .antMatchers("/api/event/active").permitAll()
+            .antMatchers("/api/event/*/leaderboard").permitAll()
             .antMatchers("/api/player/**").permitAll()
             .antMatchers("/api/trick/**").permitAll()
             .antMatchers("/api/hola").permitAll()
             .antMatchers("/abierto/**").authenticated()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/authenticate/refresh").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
@@ -0,0 +1,56 @@
+package com.limonnana.skate.config.dbmigrations;
+
+import com.limonnana.skate.domain.User;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Adds the normalized phone of the users, and its unique index.
+ */
+@ChangeLog(order = "002")
+public class PhoneKeyMigration {
+
+    private static final String PHONE = "phone";
+
+    private static final String PHONE_KEY = "phone_key";
+
+    private final Logger log = LoggerFactory.getLogger(PhoneKeyMigration.class);
+
+    @ChangeSet(order = "01", author = "initiator", id = "01-addPhoneKey")
+    public void addPhoneKey(MongoTemplate mongoTemplate) {
+        String collection = mongoTemplate.getCollectionName(User.class);
+        Query query = new Query(Criteria.where(PHONE).ne(null)).with(Sort.by("created_date", "_id"));
+        query.fields().include(PHONE);
+        Set<String> phoneKeys = new HashSet<>();
+        try (CloseableIterator<Document> users = mongoTemplate.stream(query, Document.class, collection)) {
+            users.forEachRemaining(user -> {
+                String phoneKey = User.normalizePhone(user.getString(PHONE));
+                if (phoneKey == null) {
+                    return;
+                }
+                if (!phoneKeys.add(phoneKey)) {
+                    // The oldest user keeps the phone, the others can only be found by login
+                    log.warn("User {} has the phone of an older user, leaving it out of the phone index", user.get("_id"));
+                    return;
+                }
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.get("_id"))),
+                    Update.update(PHONE_KEY, phoneKey), collection);
+            });
+        }
+        mongoTemplate.indexOps(collection).ensureIndex(new Index().on(PHONE_KEY, Sort.Direction.ASC).unique().sparse());
+    }
+}
@@ -174,7 +174,7 @@ public class Event implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id != null ? id.hashCode() : 31;
     }
 
     // prettier-ignore
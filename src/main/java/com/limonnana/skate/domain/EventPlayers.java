@@ -0,0 +1,44 @@
+package com.limonnana.skate.domain;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of {@link Player} ids to add to or remove from an {@link Event}.
+ */
+public class EventPlayers implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    private String idEvent;
+
+    @NotNull
+    private List<String> idPlayers = new ArrayList<>();
+
+    public String getIdEvent() {
+        return idEvent;
+    }
+
+    public void setIdEvent(String idEvent) {
+        this.idEvent = idEvent;
+    }
+
+    public List<String> getIdPlayers() {
+        return idPlayers;
+    }
+
+    public void setIdPlayers(List<String> idPlayers) {
+        this.idPlayers = idPlayers;
+    }
+
+    @Override
+    public String toString() {
+        return "EventPlayers{" +
+            "idEvent='" + idEvent + "'" +
+            ", idPlayers=" + idPlayers +
+            "}";
+    }
+}
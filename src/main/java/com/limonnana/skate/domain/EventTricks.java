@@ -0,0 +1,44 @@
+package com.limonnana.skate.domain;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of {@link Trick} ids to add to or remove from an {@link Event}.
+ */
+public class EventTricks implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    private String idEvent;
+
+    @NotNull
+    private List<String> idTricks = new ArrayList<>();
+
+    public String getIdEvent() {
+        return idEvent;
+    }
+
+    public void setIdEvent(String idEvent) {
+        this.idEvent = idEvent;
+    }
+
+    public List<String> getIdTricks() {
+        return idTricks;
+    }
+
+    public void setIdTricks(List<String> idTricks) {
+        this.idTricks = idTricks;
+    }
+
+    @Override
+    public String toString() {
+        return "EventTricks{" +
+            "idEvent='" + idEvent + "'" +
+            ", idTricks=" + idTricks +
+            "}";
+    }
+}
@@ -0,0 +1,136 @@
+package com.limonnana.skate.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A request identified by a client provided idempotency key, and the outcome needed to replay its response.
+ * <p>
+ * Keys expire {@link #RETENTION_SECONDS} after the request claiming them, through a TTL index.
+ */
+@Document(collection = "idempotent_request")
+public class IdempotentRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int RETENTION_SECONDS = 86400;
+
+    /**
+     * The scope of the key, followed by the key itself.
+     */
+    @Id
+    private String id;
+
+    @Field("fingerprint")
+    private String fingerprint;
+
+    /**
+     * A token unique to the request holding the claim, so that a request whose claim was taken over can no
+     * longer complete or abandon it.
+     */
+    @Field("owner")
+    private String owner;
+
+    @Indexed(expireAfterSeconds = RETENTION_SECONDS)
+    @Field("created_date")
+    private Instant createdDate = Instant.now();
+
+    @Field("completed")
+    private boolean completed;
+
+    @Field("user_id")
+    private String userId;
+
+    @Field("resource_id")
+    private String resourceId;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(String resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotentRequest)) {
+            return false;
+        }
+        return id != null && id.equals(((IdempotentRequest) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotentRequest{" +
+            "id='" + id + "'" +
+            ", createdDate=" + createdDate +
+            ", completed=" + completed +
+            ", userId='" + userId + "'" +
+            ", resourceId='" + resourceId + "'" +
+            "}";
+    }
+}
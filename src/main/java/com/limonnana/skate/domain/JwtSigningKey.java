@@ -0,0 +1,122 @@
+package com.limonnana.skate.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A key pair signing the JWT, shared by every instance and referenced by the {@code kid} header of its tokens.
+ * <p>
+ * The private key is encrypted with the JWT secret. Entries are removed through a TTL index once every token
+ * the key could have signed has expired.
+ */
+@Document(collection = "jwt_signing_key")
+public class JwtSigningKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The key id.
+     */
+    @Id
+    private String id;
+
+    private String algorithm;
+
+    /**
+     * The rank of the key among the rotations, unique, so that of the instances rotating at the same time only the
+     * first one inserts its key. {@code null} for the keys created before generations were recorded.
+     */
+    @Indexed(unique = true, sparse = true)
+    private Long generation;
+
+    /**
+     * The X.509 encoding of the public key, in Base64.
+     */
+    @Field("public_key")
+    private String publicKey;
+
+    /**
+     * The IV followed by the AES-GCM encryption of the PKCS#8 encoding of the private key, in Base64.
+     */
+    @Field("private_key")
+    private String privateKey;
+
+    @Field("created_date")
+    private Instant createdDate;
+
+    @Indexed(expireAfterSeconds = 0)
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(Long generation) {
+        this.generation = generation;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtSigningKey{" +
+            "id='" + id + "'" +
+            ", algorithm='" + algorithm + "'" +
+            ", generation=" + generation +
+            ", createdDate=" + createdDate +
+            ", expiresAt=" + expiresAt +
+            "}";
+    }
+}
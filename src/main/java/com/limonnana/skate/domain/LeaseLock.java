@@ -0,0 +1,102 @@
+package com.limonnana.skate.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A lease on a named lock, held by one application instance until it expires.
+ * <p>
+ * The fencing token grows with every acquisition, so a holder whose lease expired can tell it was taken over.
+ */
+@Document(collection = "lease_lock")
+public class LeaseLock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String name;
+
+    @Field("owner")
+    private String owner;
+
+    @Field("fencing_token")
+    private long fencingToken;
+
+    @Field("acquired_date")
+    private Instant acquiredDate;
+
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public void setFencingToken(long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+
+    public Instant getAcquiredDate() {
+        return acquiredDate;
+    }
+
+    public void setAcquiredDate(Instant acquiredDate) {
+        this.acquiredDate = acquiredDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LeaseLock)) {
+            return false;
+        }
+        return name != null && name.equals(((LeaseLock) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name != null ? name.hashCode() : 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LeaseLock{" +
+            "name='" + name + "'" +
+            ", owner='" + owner + "'" +
+            ", fencingToken=" + fencingToken +
+            ", acquiredDate=" + acquiredDate +
+            ", expiresAt=" + expiresAt +
+            "}";
+    }
+}
@@ -0,0 +1,202 @@
+package com.limonnana.skate.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * An email waiting in the outbox, or sent or failed and kept for {@link #RETENTION_SECONDS}.
+ * <p>
+ * Sent and failed emails expire at their {@code expireDate} through a TTL index, as their content can hold
+ * activation or reset links.
+ */
+@Document(collection = "mail_outbox")
+@CompoundIndex(name = "status_next_attempt_date", def = "{'status': 1, 'next_attempt_date': 1}")
+public class MailMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int RETENTION_SECONDS = 7 * 86400;
+
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+
+    @Id
+    private String id;
+
+    @Field("to")
+    private String to;
+
+    @Field("subject")
+    private String subject;
+
+    @Field("content")
+    private String content;
+
+    @Field("multipart")
+    private boolean multipart;
+
+    @Field("html")
+    private boolean html;
+
+    @Field("status")
+    private Status status = Status.PENDING;
+
+    @Field("attempts")
+    private int attempts;
+
+    @Field("next_attempt_date")
+    private Instant nextAttemptDate = Instant.now();
+
+    @Field("created_date")
+    private Instant createdDate = Instant.now();
+
+    @Field("sent_date")
+    private Instant sentDate;
+
+    @Indexed(expireAfterSeconds = 0)
+    @Field("expire_date")
+    private Instant expireDate;
+
+    @Field("last_error")
+    private String lastError;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isMultipart() {
+        return multipart;
+    }
+
+    public void setMultipart(boolean multipart) {
+        this.multipart = multipart;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    public void setHtml(boolean html) {
+        this.html = html;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptDate() {
+        return nextAttemptDate;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getSentDate() {
+        return sentDate;
+    }
+
+    public void setSentDate(Instant sentDate) {
+        this.sentDate = sentDate;
+    }
+
+    public Instant getExpireDate() {
+        return expireDate;
+    }
+
+    public void setExpireDate(Instant expireDate) {
+        this.expireDate = expireDate;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailMessage)) {
+            return false;
+        }
+        return id != null && id.equals(((MailMessage) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailMessage{" +
+            "id='" + id + "'" +
+            ", to='" + to + "'" +
+            ", subject='" + subject + "'" +
+            ", status=" + status +
+            ", attempts=" + attempts +
+            ", nextAttemptDate=" + nextAttemptDate +
+            "}";
+    }
+}
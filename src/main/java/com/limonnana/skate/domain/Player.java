@@ -36,19 +36,22 @@ public class Player implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return getId() != null ? getId().hashCode() : 31;
     }
 
     // prettier-ignore
     @Override
     public String toString() {
         User u = getUser();
+        if (u == null) {
+            return "Player{id=" + getId() + "}";
+        }
         return "Player{" +
             "id=" + getId() +
-            ", fullName='" + getUser().getFirstName() + " " + getUser().getLastName() + "'" +
-            ", phone='" + getUser().getPhone() + "'" +
-            ", email='" + getUser().getEmail() + "'" +
-            ", country='" + getUser().getCountry() + "'" +
+            ", fullName='" + u.getFirstName() + " " + u.getLastName() + "'" +
+            ", phone='" + u.getPhone() + "'" +
+            ", email='" + u.getEmail() + "'" +
+            ", country='" + u.getCountry() + "'" +
             "}";
     }
 
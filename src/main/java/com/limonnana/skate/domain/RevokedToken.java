@@ -0,0 +1,67 @@
+package com.limonnana.skate.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A login session or a user whose tokens issued up to the revocation date are no longer accepted.
+ * <p>
+ * Entries are removed through a TTL index once every token they could match has expired.
+ */
+@Document(collection = "revoked_token")
+public class RevokedToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The kind of entry, followed by the session id or the user login.
+     */
+    @Id
+    private String id;
+
+    @Indexed
+    @Field("revoked_date")
+    private Instant revokedDate;
+
+    @Indexed(expireAfterSeconds = 0)
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Instant getRevokedDate() {
+        return revokedDate;
+    }
+
+    public void setRevokedDate(Instant revokedDate) {
+        this.revokedDate = revokedDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "id='" + id + "'" +
+            ", revokedDate=" + revokedDate +
+            ", expiresAt=" + expiresAt +
+            "}";
+    }
+}
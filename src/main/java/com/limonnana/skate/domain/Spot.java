@@ -83,7 +83,7 @@ public class Spot implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id != null ? id.hashCode() : 31;
     }
 
     // prettier-ignore
@@ -101,7 +101,7 @@ public class Trick implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id != null ? id.hashCode() : 31;
     }
 
     // prettier-ignore
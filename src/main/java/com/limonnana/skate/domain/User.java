@@ -52,6 +52,14 @@ public class User extends AbstractAuditingEntity implements Serializable {
     @Field("phone")
     private String phone;
 
+    /**
+     * The phone in national format without separators, unique. Indexed by a migration rather than by
+     * {@code @Indexed}, as existing users had to be deduplicated first.
+     */
+    @JsonIgnore
+    @Field("phone_key")
+    private String phoneKey;
+
     @Size(max = 30)
     @Field("country")
     private String country;
@@ -247,6 +255,43 @@ public class User extends AbstractAuditingEntity implements Serializable {
 
     public void setPhone(String phone) {
         this.phone = phone;
+        this.phoneKey = normalizePhone(phone);
+    }
+
+    public String getPhoneKey() {
+        return phoneKey;
+    }
+
+    public void setPhoneKey(String phoneKey) {
+        this.phoneKey = phoneKey;
+    }
+
+    /**
+     * Normalize a phone number: separators are dropped, and numbers with the default country calling code
+     * are written in national format, so that all the ways of writing a number give the same key.
+     *
+     * @param phone the phone number as entered.
+     * @return the normalized phone number, or {@code null} if it has no digits.
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+        boolean international = phone.trim().startsWith("+") || digits.startsWith("00");
+        if (digits.startsWith("00")) {
+            digits = digits.substring(2);
+        }
+        if (!international) {
+            return digits;
+        }
+        if (digits.startsWith(Constants.DEFAULT_COUNTRY_CALLING_CODE)) {
+            return "0" + digits.substring(Constants.DEFAULT_COUNTRY_CALLING_CODE.length());
+        }
+        return "+" + digits;
     }
 
     public String getCountry() {
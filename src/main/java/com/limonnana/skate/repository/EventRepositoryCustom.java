@@ -0,0 +1,47 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.Event;
+
+import java.util.Collection;
+
+/**
+ * Targeted updates on the {@link Event} entity that avoid reading and rewriting the whole document.
+ */
+public interface EventRepositoryCustom {
+
+    /**
+     * Add the existing players to the event with a single {@code $addToSet ... $each} update.
+     *
+     * @param eventId   the id of the event.
+     * @param playerIds the ids of the players to add, unknown ids are ignored.
+     * @return {@code true} if the event exists.
+     */
+    boolean addPlayers(String eventId, Collection<String> playerIds);
+
+    /**
+     * Remove the players from the event with a single {@code $pull} update.
+     *
+     * @param eventId   the id of the event.
+     * @param playerIds the ids of the players to remove.
+     * @return {@code true} if the event exists.
+     */
+    boolean removePlayers(String eventId, Collection<String> playerIds);
+
+    /**
+     * Add the existing tricks to the event with a single {@code $addToSet ... $each} update.
+     *
+     * @param eventId  the id of the event.
+     * @param trickIds the ids of the tricks to add, unknown ids are ignored.
+     * @return {@code true} if the event exists.
+     */
+    boolean addTricks(String eventId, Collection<String> trickIds);
+
+    /**
+     * Remove the tricks from the event with a single {@code $pull} update.
+     *
+     * @param eventId  the id of the event.
+     * @param trickIds the ids of the tricks to remove.
+     * @return {@code true} if the event exists.
+     */
+    boolean removeTricks(String eventId, Collection<String> trickIds);
+}
@@ -0,0 +1,109 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.domain.Player;
+import com.limonnana.skate.domain.Trick;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.limonnana.skate.repository.MongoIds.toStoredId;
+import static com.limonnana.skate.repository.MongoIds.toStoredIds;
+
+/**
+ * {@link EventRepositoryCustom} implementation based on {@link MongoTemplate}.
+ */
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    private static final String ID = "_id";
+
+    private static final String PLAYERS_FIELD = "player";
+
+    private static final String TRICKS_FIELD = "trick";
+
+    private final MongoTemplate mongoTemplate;
+
+    public EventRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean addPlayers(String eventId, Collection<String> playerIds) {
+        return addReferences(eventId, PLAYERS_FIELD, Player.class, playerIds);
+    }
+
+    @Override
+    public boolean removePlayers(String eventId, Collection<String> playerIds) {
+        return removeReferences(eventId, PLAYERS_FIELD, Player.class, playerIds);
+    }
+
+    @Override
+    public boolean addTricks(String eventId, Collection<String> trickIds) {
+        return addReferences(eventId, TRICKS_FIELD, Trick.class, trickIds);
+    }
+
+    @Override
+    public boolean removeTricks(String eventId, Collection<String> trickIds) {
+        return removeReferences(eventId, TRICKS_FIELD, Trick.class, trickIds);
+    }
+
+    private boolean addReferences(String eventId, String field, Class<?> referencedType, Collection<String> ids) {
+        List<DBRef> refs = toDBRefs(referencedType, existingIds(referencedType, ids));
+        if (refs.isEmpty()) {
+            return mongoTemplate.exists(byId(eventId), Event.class);
+        }
+        Update update = new Update().addToSet(field).each(refs.toArray());
+        return mongoTemplate.updateFirst(byId(eventId), update, Event.class).getMatchedCount() > 0;
+    }
+
+    private boolean removeReferences(String eventId, String field, Class<?> referencedType, Collection<String> ids) {
+        List<DBRef> refs = toDBRefs(referencedType, ids);
+        if (refs.isEmpty()) {
+            return mongoTemplate.exists(byId(eventId), Event.class);
+        }
+        Update update = new Update().pullAll(field, refs.toArray());
+        return mongoTemplate.updateFirst(byId(eventId), update, Event.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Keep only the ids that match a document, so that no dangling reference is stored in the event.
+     */
+    private List<String> existingIds(Class<?> type, Collection<String> ids) {
+        List<String> result = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        Query query = new Query(Criteria.where(ID).in(toStoredIds(ids)));
+        query.fields().include(ID);
+        for (Document document : mongoTemplate.getCollection(mongoTemplate.getCollectionName(type))
+            .find(query.getQueryObject())
+            .projection(query.getFieldsObject())) {
+            result.add(document.get(ID).toString());
+        }
+        return result;
+    }
+
+    private List<DBRef> toDBRefs(Class<?> type, Collection<String> ids) {
+        List<DBRef> refs = new ArrayList<>();
+        if (ids == null) {
+            return refs;
+        }
+        String collection = mongoTemplate.getCollectionName(type);
+        for (String id : ids) {
+            refs.add(new DBRef(collection, toStoredId(id)));
+        }
+        return refs;
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where(ID).is(id));
+    }
+}
@@ -0,0 +1,13 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.JwtSigningKey;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB repository for the {@link JwtSigningKey} entity.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends MongoRepository<JwtSigningKey, String> {
+}
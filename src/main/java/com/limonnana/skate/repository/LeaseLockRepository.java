@@ -0,0 +1,13 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.LeaseLock;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB repository for the {@link LeaseLock} entity.
+ */
+@Repository
+public interface LeaseLockRepository extends MongoRepository<LeaseLock, String> {
+}
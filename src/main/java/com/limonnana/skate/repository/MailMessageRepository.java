@@ -0,0 +1,19 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.MailMessage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data MongoDB repository for the {@link MailMessage} entity.
+ */
+@Repository
+public interface MailMessageRepository extends MongoRepository<MailMessage, String> {
+
+    List<MailMessage> findByStatusAndNextAttemptDateLessThanEqualOrderByNextAttemptDate(MailMessage.Status status, Instant date, Pageable pageable);
+}
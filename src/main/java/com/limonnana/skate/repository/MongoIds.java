@@ -0,0 +1,43 @@
+package com.limonnana.skate.repository;
+
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Conversion of entity ids to the values stored in MongoDB, for queries that bypass the entity mapping.
+ */
+public final class MongoIds {
+
+    private MongoIds() {
+    }
+
+    /**
+     * A new id, for an entity to get before it is put in a set or a cache: entities hash on their id.
+     *
+     * @return the id.
+     */
+    public static String newId() {
+        return new ObjectId().toHexString();
+    }
+
+    /**
+     * Spring Data stores {@code String} ids that are valid {@link ObjectId}s as {@link ObjectId}.
+     *
+     * @param id the entity id.
+     * @return the stored id.
+     */
+    public static Object toStoredId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    public static List<Object> toStoredIds(Collection<String> ids) {
+        List<Object> result = new ArrayList<>();
+        for (String id : ids) {
+            result.add(toStoredId(id));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package com.limonnana.skate.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.core.Ordered;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Assigns an {@link ObjectId} to documents with a {@code String} id before they are written, instead of
+ * letting the driver generate it during the insert.
+ * <p>
+ * Entities hash on their id, so the code creating one assigns it through {@link MongoIds#newId()} before
+ * using it; this callback is only a safety net for the entities written without one. Runs after auditing,
+ * which relies on a missing id to detect new documents.
+ */
+@Component
+public class ObjectIdAssigningCallback implements BeforeConvertCallback<Object>, Ordered {
+
+    private final MongoMappingContext mappingContext;
+
+    public ObjectIdAssigningCallback(MongoMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public Object onBeforeConvert(Object entity, String collection) {
+        MongoPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entity.getClass());
+        if (persistentEntity == null) {
+            return entity;
+        }
+        MongoPersistentProperty idProperty = persistentEntity.getIdProperty();
+        if (idProperty == null || !String.class.equals(idProperty.getType())) {
+            return entity;
+        }
+        PersistentPropertyAccessor<Object> accessor = persistentEntity.getPropertyAccessor(entity);
+        if (accessor.getProperty(idProperty) == null) {
+            accessor.setProperty(idProperty, MongoIds.newId());
+        }
+        return entity;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -20,4 +20,11 @@ public interface PersistenceAuditEventRepository extends MongoRepository<Persist
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
 
     List<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+
+    /**
+     * Delete the audit events older than a date, in a single query.
+     *
+     * @return the number of audit events deleted.
+     */
+    long deleteByAuditEventDateBefore(Instant before);
 }
@@ -2,14 +2,51 @@ package com.limonnana.skate.repository;
 
 import com.limonnana.skate.domain.Player;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Spring Data MongoDB repository for the Player entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PlayerRepository extends MongoRepository<Player, String> {
+public interface PlayerRepository extends MongoRepository<Player, String>, PlayerRepositoryCustom {
+
+    String PLAYERS_BY_ID_CACHE = "playersById";
+
+    @Override
+    @Cacheable(cacheNames = PLAYERS_BY_ID_CACHE, unless = "#result == null")
+    Optional<Player> findById(String id);
+
+    /**
+     * Load a player from the database, bypassing the cache, for code about to change it: cached instances
+     * are shared by every caller and must not be modified.
+     */
+    Optional<Player> findOneById(String id);
+
+    @Override
+    @CacheEvict(cacheNames = PLAYERS_BY_ID_CACHE, key = "#p0.id")
+    <S extends Player> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = PLAYERS_BY_ID_CACHE, allEntries = true)
+    <S extends Player> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = PLAYERS_BY_ID_CACHE)
+    void deleteById(String id);
+
+    @Override
+    @CacheEvict(cacheNames = PLAYERS_BY_ID_CACHE, key = "#p0.id")
+    void delete(Player entity);
+
+    @Override
+    @CacheEvict(cacheNames = PLAYERS_BY_ID_CACHE, allEntries = true)
+    void deleteAll();
 }
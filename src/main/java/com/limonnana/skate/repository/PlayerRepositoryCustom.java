@@ -0,0 +1,27 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.Player;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lookups on the {@link Player} entity that avoid resolving its references.
+ */
+public interface PlayerRepositoryCustom {
+
+    /**
+     * Get the id of the user of a player without loading the player nor the user.
+     *
+     * @param playerId the id of the player.
+     * @return the id of the user, or empty if the player doesn't exist or has no user.
+     */
+    Optional<String> findUserId(String playerId);
+
+    /**
+     * Get the ids of the users of all the players without loading the players nor the users.
+     *
+     * @return the ids of the users keyed by player id, players without user left out.
+     */
+    Map<String, String> findAllUserIds();
+}
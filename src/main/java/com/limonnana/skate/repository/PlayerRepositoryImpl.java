@@ -0,0 +1,54 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.Player;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link PlayerRepositoryCustom} implementation based on {@link MongoTemplate}.
+ */
+public class PlayerRepositoryImpl implements PlayerRepositoryCustom {
+
+    private static final String USER_FIELD = "user";
+
+    private final MongoTemplate mongoTemplate;
+
+    public PlayerRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<String> findUserId(String playerId) {
+        Query query = new Query(Criteria.where("_id").is(playerId));
+        query.fields().include(USER_FIELD);
+        Document player = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Player.class));
+        if (player == null || !(player.get(USER_FIELD) instanceof DBRef)) {
+            return Optional.empty();
+        }
+        return Optional.of(((DBRef) player.get(USER_FIELD)).getId().toString());
+    }
+
+    @Override
+    public Map<String, String> findAllUserIds() {
+        Query query = new Query();
+        query.fields().include(USER_FIELD);
+        Map<String, String> userIds = new HashMap<>();
+        try (CloseableIterator<Document> players = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(Player.class))) {
+            players.forEachRemaining(player -> {
+                if (player.get(USER_FIELD) instanceof DBRef) {
+                    userIds.put(player.get("_id").toString(), ((DBRef) player.get(USER_FIELD)).getId().toString());
+                }
+            });
+        }
+        return userIds;
+    }
+}
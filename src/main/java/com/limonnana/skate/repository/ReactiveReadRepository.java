@@ -0,0 +1,172 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.domain.Player;
+import com.limonnana.skate.domain.Trick;
+
+import com.mongodb.DBRef;
+import com.mongodb.ReadPreference;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking read access to the entities served by the public endpoints.
+ * <p>
+ * The reactive driver cannot resolve {@code @DBRef} associations, so documents are read raw and their
+ * references are fetched level by level, with one {@code $in} query per referenced collection.
+ * Once no reference is left the document is mapped to the entity with the regular {@link MongoConverter},
+ * which then has nothing to fetch and never blocks.
+ * <p>
+ * Players and tricks share the caches of {@link PlayerRepository#findById} and {@link TrickRepository#findById}.
+ * <p>
+ * The routing of the request thread does not apply to reactive reads, so their read preference is explicit:
+ * the active event is read from the secondaries when {@code application.mongo.replica-reads.enabled} is set,
+ * while the players and tricks filling the caches are read from the primary, as {@link
+ * com.limonnana.skate.config.ReplicaReadRouting} does for the blocking reads.
+ */
+@Repository
+public class ReactiveReadRepository {
+
+    private static final String ID = "_id";
+
+    /**
+     * Event, then tricks, players, spot and photos, then users and spot photos.
+     */
+    private static final int MAX_REFERENCE_DEPTH = 3;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final MongoConverter mongoConverter;
+
+    private final CacheManager cacheManager;
+
+    private final ReadPreference replicaReadPreference;
+
+    public ReactiveReadRepository(ReactiveMongoTemplate reactiveMongoTemplate, MongoConverter mongoConverter,
+                                  CacheManager cacheManager, ApplicationProperties applicationProperties) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.mongoConverter = mongoConverter;
+        this.cacheManager = cacheManager;
+        ApplicationProperties.Mongo.ReplicaReads replicaReads = applicationProperties.getMongo().getReplicaReads();
+        this.replicaReadPreference = replicaReads.isEnabled()
+            ? ReadPreference.secondaryPreferred(replicaReads.getMaxStaleness().getSeconds(), TimeUnit.SECONDS)
+            : ReadPreference.primary();
+    }
+
+    public Mono<Event> findActiveEvent() {
+        return findOne(Event.class, new Document("active", true), replicaReadPreference);
+    }
+
+    public Mono<Player> findPlayerById(String id) {
+        return findCachedById(Player.class, PlayerRepository.PLAYERS_BY_ID_CACHE, id);
+    }
+
+    public Mono<Trick> findTrickById(String id) {
+        return findCachedById(Trick.class, TrickRepository.TRICKS_BY_ID_CACHE, id);
+    }
+
+    private <T> Mono<T> findCachedById(Class<T> type, String cacheName, String id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Document filter = new Document(ID, MongoIds.toStoredId(id));
+        if (cache == null) {
+            return findOne(type, filter, ReadPreference.primary());
+        }
+        return Mono.defer(() -> Mono.justOrEmpty(cache.get(id, type)))
+            .switchIfEmpty(Mono.defer(() -> findOne(type, filter, ReadPreference.primary())
+                .doOnNext(entity -> cache.put(id, entity))));
+    }
+
+    private <T> Mono<T> findOne(Class<T> type, Document filter, ReadPreference readPreference) {
+        return Mono.from(collection(reactiveMongoTemplate.getCollectionName(type), readPreference).find(filter).limit(1).first())
+            .flatMap(document -> resolveReferences(document, MAX_REFERENCE_DEPTH, readPreference))
+            .map(document -> mongoConverter.read(type, document));
+    }
+
+    private MongoCollection<Document> collection(String name, ReadPreference readPreference) {
+        return reactiveMongoTemplate.getCollection(name).withReadPreference(readPreference);
+    }
+
+    private Mono<Document> resolveReferences(Document document, int depth, ReadPreference readPreference) {
+        Map<String, Set<Object>> references = new HashMap<>();
+        collectReferences(document, references);
+        if (references.isEmpty()) {
+            return Mono.just(document);
+        }
+        if (depth == 0) {
+            // Dangling references would be resolved by the blocking converter, drop them instead
+            return Mono.just(replaceReferences(document, new HashMap<>()));
+        }
+        return Flux.fromIterable(references.entrySet())
+            .flatMap(entry -> Flux.from(collection(entry.getKey(), readPreference)
+                    .find(new Document(ID, new Document("$in", new ArrayList<>(entry.getValue())))))
+                .map(referenced -> new Object[] { key(entry.getKey(), referenced.get(ID)), referenced }))
+            .collectMap(pair -> (String) pair[0], pair -> (Document) pair[1])
+            .map(resolved -> replaceReferences(document, resolved))
+            .flatMap(replaced -> resolveReferences(replaced, depth - 1, readPreference));
+    }
+
+    private static void collectReferences(Object value, Map<String, Set<Object>> references) {
+        if (value instanceof DBRef) {
+            DBRef ref = (DBRef) value;
+            references.computeIfAbsent(ref.getCollectionName(), collection -> new HashSet<>()).add(ref.getId());
+        } else if (value instanceof Document) {
+            for (Object child : ((Document) value).values()) {
+                collectReferences(child, references);
+            }
+        } else if (value instanceof List) {
+            for (Object child : (List<?>) value) {
+                collectReferences(child, references);
+            }
+        }
+    }
+
+    private static Document replaceReferences(Document document, Map<String, Document> resolved) {
+        Document result = new Document();
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            result.put(entry.getKey(), replaceValue(entry.getValue(), resolved));
+        }
+        return result;
+    }
+
+    private static Object replaceValue(Object value, Map<String, Document> resolved) {
+        if (value instanceof DBRef) {
+            DBRef ref = (DBRef) value;
+            return resolved.get(key(ref.getCollectionName(), ref.getId()));
+        }
+        if (value instanceof Document) {
+            return replaceReferences((Document) value, resolved);
+        }
+        if (value instanceof List) {
+            List<Object> result = new ArrayList<>();
+            for (Object child : (List<?>) value) {
+                Object replaced = replaceValue(child, resolved);
+                // A reference to a deleted document is skipped, as the blocking bulk read does
+                if (replaced != null || !(child instanceof DBRef)) {
+                    result.add(replaced);
+                }
+            }
+            return result;
+        }
+        return value;
+    }
+
+    private static String key(String collection, Object id) {
+        return collection + ':' + id;
+    }
+}
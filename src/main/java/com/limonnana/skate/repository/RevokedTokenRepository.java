@@ -0,0 +1,18 @@
+package com.limonnana.skate.repository;
+
+import com.limonnana.skate.domain.RevokedToken;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data MongoDB repository for the {@link RevokedToken} entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+    List<RevokedToken> findAllByRevokedDateAfter(Instant revokedDate);
+}
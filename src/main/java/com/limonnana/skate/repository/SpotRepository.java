@@ -2,14 +2,51 @@ package com.limonnana.skate.repository;
 
 import com.limonnana.skate.domain.Spot;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Spring Data MongoDB repository for the Spot entity.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface SpotRepository extends MongoRepository<Spot, String> {
+
+    String SPOTS_BY_ID_CACHE = "spotsById";
+
+    @Override
+    @Cacheable(cacheNames = SPOTS_BY_ID_CACHE, unless = "#result == null")
+    Optional<Spot> findById(String id);
+
+    /**
+     * Load a spot from the database, bypassing the cache, for code about to change it: cached instances
+     * are shared by every caller and must not be modified.
+     */
+    Optional<Spot> findOneById(String id);
+
+    @Override
+    @CacheEvict(cacheNames = SPOTS_BY_ID_CACHE, key = "#p0.id")
+    <S extends Spot> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = SPOTS_BY_ID_CACHE, allEntries = true)
+    <S extends Spot> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = SPOTS_BY_ID_CACHE)
+    void deleteById(String id);
+
+    @Override
+    @CacheEvict(cacheNames = SPOTS_BY_ID_CACHE, key = "#p0.id")
+    void delete(Spot entity);
+
+    @Override
+    @CacheEvict(cacheNames = SPOTS_BY_ID_CACHE, allEntries = true)
+    void deleteAll();
 }
@@ -2,14 +2,58 @@ package com.limonnana.skate.repository;
 
 import com.limonnana.skate.domain.Trick;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Spring Data MongoDB repository for the Trick entity.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface TrickRepository extends MongoRepository<Trick, String> {
+
+    String TRICKS_BY_ID_CACHE = "tricksById";
+
+    /**
+     * Stream a page of tricks from a cursor, without counting all the tricks.
+     */
+    Stream<Trick> streamAllBy(Pageable pageable);
+
+    @Override
+    @Cacheable(cacheNames = TRICKS_BY_ID_CACHE, unless = "#result == null")
+    Optional<Trick> findById(String id);
+
+    /**
+     * Load a trick from the database, bypassing the cache, for code about to change it: cached instances
+     * are shared by every caller and must not be modified.
+     */
+    Optional<Trick> findOneById(String id);
+
+    @Override
+    @CacheEvict(cacheNames = TRICKS_BY_ID_CACHE, key = "#p0.id")
+    <S extends Trick> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = TRICKS_BY_ID_CACHE, allEntries = true)
+    <S extends Trick> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = TRICKS_BY_ID_CACHE)
+    void deleteById(String id);
+
+    @Override
+    @CacheEvict(cacheNames = TRICKS_BY_ID_CACHE, key = "#p0.id")
+    void delete(Trick entity);
+
+    @Override
+    @CacheEvict(cacheNames = TRICKS_BY_ID_CACHE, allEntries = true)
+    void deleteAll();
 }
@@ -2,11 +2,14 @@ package com.limonnana.skate.repository;
 
 import com.limonnana.skate.domain.User;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.time.Instant;
@@ -17,17 +20,57 @@ import java.time.Instant;
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
 
+    /**
+     * Account views of users by login, see {@code UserService#getAccount}.
+     */
+    String ACCOUNTS_BY_LOGIN_CACHE = "accountsByLogin";
+
     Optional<User> findOneByActivationKey(String activationKey);
 
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
 
+    /**
+     * Delete users among the given ones in a single query, only if they are still not activated.
+     * Does not evict the caches.
+     *
+     * @return the number of users deleted.
+     */
+    long deleteByIdInAndActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Collection<String> ids, Instant dateTime);
+
     Optional<User> findOneByResetKey(String resetKey);
 
     Optional<User> findOneByEmailIgnoreCase(String email);
 
     Optional<User> findOneByLogin(String login);
 
-    Optional<User> findOneByPhone(String phone);
+    /**
+     * Get the users holding a phone number, as phone or as login, in a single indexed query.
+     */
+    List<User> findAllByPhoneKeyOrLogin(String phoneKey, String login);
 
     Page<User> findAllByLoginNot(Pageable pageable, String login);
+
+    /**
+     * Cached players embed their user, drop them all as a user is not cached by player id.
+     */
+    @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = PlayerRepository.PLAYERS_BY_ID_CACHE, allEntries = true),
+        @CacheEvict(cacheNames = ACCOUNTS_BY_LOGIN_CACHE, key = "#p0.login")
+    })
+    <S extends User> S save(S entity);
+
+    @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = PlayerRepository.PLAYERS_BY_ID_CACHE, allEntries = true),
+        @CacheEvict(cacheNames = ACCOUNTS_BY_LOGIN_CACHE, key = "#p0.login")
+    })
+    void delete(User entity);
+
+    @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = PlayerRepository.PLAYERS_BY_ID_CACHE, allEntries = true),
+        @CacheEvict(cacheNames = ACCOUNTS_BY_LOGIN_CACHE, allEntries = true)
+    })
+    void deleteAll();
 }
@@ -0,0 +1,76 @@
+package com.limonnana.skate.security.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of strings, safe for concurrent use.
+ * <p>
+ * {@link #mightContain(String)} is always {@code true} for the strings put in the filter, and {@code true}
+ * for other strings with about the false positive rate the filter was sized for.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final int bitCount;
+
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter size: " + expectedInsertions + " insertions at " + falsePositiveRate);
+        }
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitCount = (int) Math.max(Long.SIZE, Math.min(optimalBits, Integer.MAX_VALUE - Long.SIZE));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(hash1 + i * hash2);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = bits.get(bit >>> 6);
+            } while ((word & mask) == 0 && !bits.compareAndSet(bit >>> 6, word, word | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(hash1 + i * hash2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * FNV-1a over the characters, then the MurmurHash3 finalizer to spread the bits over the whole long.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
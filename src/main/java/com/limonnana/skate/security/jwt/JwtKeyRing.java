@@ -0,0 +1,351 @@
+package com.limonnana.skate.security.jwt;
+
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.domain.JwtSigningKey;
+import com.limonnana.skate.repository.JwtSigningKeyRepository;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Signs the JWT with rotating ES256 keys, and verifies them with the key named by their {@code kid} header.
+ * <p>
+ * Keys are stored in the {@code jwt_signing_key} collection and reloaded every {@code application.jwt.keys.sync-interval}.
+ * Once the newest key is older than {@code rotation-interval} a new one is created, which only starts signing two
+ * synchronizations later, when every instance can verify it. Older keys keep verifying until every token they could
+ * have signed has expired, so a rotation logs no one out.
+ * <p>
+ * Keys are numbered by a unique generation: of the instances creating a key at the same time, on the first start
+ * or at a rotation, only the first one inserts it, and the others load it instead of signing with their own.
+ * <p>
+ * The parser is built once and the keys are decoded once, when loaded: verifying a token only looks its key up.
+ * Tokens signed with HS512 and the JWT secret, before the key ring, are accepted while {@code accept-legacy-tokens} is set.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.ES256;
+
+    private static final SignatureAlgorithm LEGACY_ALGORITHM = SignatureAlgorithm.HS512;
+
+    private static final String KEY_ALGORITHM = "EC";
+
+    private static final String WRAPPING_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH = 128;
+
+    private static final int MAX_CREATE_ATTEMPTS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private final Duration rotationInterval;
+
+    private final Duration publicationDelay;
+
+    private final Duration retention;
+
+    private final boolean acceptLegacyTokens;
+
+    private final SecretKey legacyKey;
+
+    private final SecretKey wrappingKey;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final JwtParser parser;
+
+    private volatile Map<String, RingKey> keys = Collections.emptyMap();
+
+    private volatile RingKey signingKey;
+
+    public JwtKeyRing(JwtSigningKeyRepository jwtSigningKeyRepository, ApplicationProperties applicationProperties,
+                      JHipsterProperties jHipsterProperties) {
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        ApplicationProperties.Jwt.Keys properties = applicationProperties.getJwt().getKeys();
+        this.rotationInterval = properties.getRotationInterval();
+        this.publicationDelay = properties.getSyncInterval().multipliedBy(2);
+        this.acceptLegacyTokens = properties.isAcceptLegacyTokens();
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        long validityInSeconds = Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe());
+        this.retention = Duration.ofSeconds(validityInSeconds).plus(applicationProperties.getJwt().getAccessTokenValidity());
+        byte[] secret = secret(jwt);
+        this.legacyKey = Keys.hmacShaKeyFor(secret);
+        this.wrappingKey = wrappingKey(secret);
+        this.parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verificationKey(header);
+                }
+            })
+            .build();
+    }
+
+    private byte[] secret(JHipsterProperties.Security.Authentication.Jwt jwt) {
+        if (!StringUtils.isEmpty(jwt.getSecret())) {
+            log.warn("Warning: the JWT key used is not Base64-encoded. " +
+                "We recommend using the `jhipster.security.authentication.jwt.base64-secret` key for optimum security.");
+            return jwt.getSecret().getBytes(StandardCharsets.UTF_8);
+        }
+        log.debug("Using a Base64-encoded JWT secret key");
+        return Decoders.BASE64.decode(jwt.getBase64Secret());
+    }
+
+    /**
+     * Derive the key encrypting the private keys from the secret, so that it differs from the legacy signing key.
+     */
+    private static SecretKey wrappingKey(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return new SecretKeySpec(mac.doFinal("jwt_signing_key".getBytes(StandardCharsets.UTF_8)), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive the JWT signing key encryption key", e);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        synchronize();
+    }
+
+    /**
+     * Sign a token with the current key.
+     *
+     * @param builder the token.
+     * @return the builder, with the key id in its header.
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        RingKey key = signingKey;
+        return builder
+            .setHeaderParam(JwsHeader.KEY_ID, key.id)
+            .signWith(key.privateKey, ALGORITHM);
+    }
+
+    /**
+     * Verify a token and read its claims.
+     *
+     * @param token the token.
+     * @return the claims of the token.
+     * @throws JwtException if the token is invalid, expired, or signed with an unknown key.
+     */
+    public Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private Key verificationKey(JwsHeader<?> header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (acceptLegacyTokens && LEGACY_ALGORITHM.getValue().equals(header.getAlgorithm())) {
+                return legacyKey;
+            }
+            throw new UnsupportedJwtException("JWT without key id");
+        }
+        RingKey key = keys.get(keyId);
+        if (key == null || !ALGORITHM.getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("JWT signed with an unknown key");
+        }
+        return key.publicKey;
+    }
+
+    /**
+     * Load the keys created by the other instances, create a new key when the newest one is due for rotation,
+     * and choose the signing key.
+     */
+    @Scheduled(fixedDelayString = "${application.jwt.keys.sync-interval:PT1M}")
+    public synchronized void synchronize() {
+        Instant now = Instant.now();
+        List<JwtSigningKey> stored = jwtSigningKeyRepository.findAll();
+        Map<String, RingKey> loaded = loadAll(stored, now);
+        for (int attempt = 1; isDueForRotation(loaded.values(), now); attempt++) {
+            Optional<RingKey> created = create(now, nextGeneration(stored));
+            if (created.isPresent()) {
+                loaded.put(created.get().id, created.get());
+            } else if (attempt < MAX_CREATE_ATTEMPTS) {
+                // Another instance created the key of this generation first, load it
+                stored = jwtSigningKeyRepository.findAll();
+                loaded = loadAll(stored, now);
+            } else {
+                log.warn("Could not create a JWT signing key, other instances kept creating one first");
+                break;
+            }
+        }
+        keys = Collections.unmodifiableMap(loaded);
+        signingKey = signingKey(loaded.values(), now);
+    }
+
+    private Map<String, RingKey> loadAll(List<JwtSigningKey> stored, Instant now) {
+        Map<String, RingKey> loaded = new HashMap<>();
+        for (JwtSigningKey storedKey : stored) {
+            if (!storedKey.getExpiresAt().isAfter(now)) {
+                continue;
+            }
+            RingKey key = keys.containsKey(storedKey.getId()) ? keys.get(storedKey.getId()) : load(storedKey);
+            if (key != null) {
+                loaded.put(key.id, key);
+            }
+        }
+        return loaded;
+    }
+
+    private boolean isDueForRotation(Collection<RingKey> candidates, Instant now) {
+        Optional<RingKey> newest = candidates.stream()
+            .filter(RingKey::canSign)
+            .max(Comparator.comparing(key -> key.createdDate));
+        return !newest.isPresent() || newest.get().createdDate.isBefore(now.minus(rotationInterval));
+    }
+
+    /**
+     * Follows every stored key, expired ones included, so that it is only free if no other instance created a key
+     * since they were read.
+     */
+    private static long nextGeneration(List<JwtSigningKey> stored) {
+        return stored.stream()
+            .map(JwtSigningKey::getGeneration)
+            .filter(Objects::nonNull)
+            .mapToLong(Long::longValue)
+            .max()
+            .orElse(0) + 1;
+    }
+
+    /**
+     * The newest key every instance has loaded, or the newest key when none is old enough: on the first start, the
+     * single key every instance loaded.
+     */
+    private RingKey signingKey(Collection<RingKey> candidates, Instant now) {
+        Instant published = now.minus(publicationDelay);
+        Comparator<RingKey> byCreatedDate = Comparator.comparing(key -> key.createdDate);
+        return candidates.stream()
+            .filter(RingKey::canSign)
+            .filter(key -> !key.createdDate.isAfter(published))
+            .max(byCreatedDate)
+            .orElseGet(() -> candidates.stream().filter(RingKey::canSign).max(byCreatedDate).orElseThrow(IllegalStateException::new));
+    }
+
+    private RingKey load(JwtSigningKey stored) {
+        if (!ALGORITHM.getValue().equals(stored.getAlgorithm())) {
+            log.warn("Ignoring the JWT signing key {} of algorithm {}", stored.getId(), stored.getAlgorithm());
+            return null;
+        }
+        PublicKey publicKey;
+        try {
+            publicKey = KeyFactory.getInstance(KEY_ALGORITHM)
+                .generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(stored.getPublicKey())));
+        } catch (GeneralSecurityException | DecodingException e) {
+            log.warn("Ignoring the invalid JWT signing key {}", stored.getId(), e);
+            return null;
+        }
+        PrivateKey privateKey = null;
+        try {
+            privateKey = KeyFactory.getInstance(KEY_ALGORITHM)
+                .generatePrivate(new PKCS8EncodedKeySpec(unwrap(stored.getPrivateKey())));
+        } catch (GeneralSecurityException | DecodingException e) {
+            log.warn("Cannot decrypt the JWT signing key {}, it will only verify tokens. Was the JWT secret changed?", stored.getId());
+        }
+        return new RingKey(stored.getId(), stored.getCreatedDate(), publicKey, privateKey);
+    }
+
+    /**
+     * Create a key, unless another instance already created the key of this generation.
+     */
+    private Optional<RingKey> create(Instant now, long generation) {
+        KeyPair keyPair = Keys.keyPairFor(ALGORITHM);
+        JwtSigningKey stored = new JwtSigningKey();
+        stored.setId(UUID.randomUUID().toString());
+        stored.setAlgorithm(ALGORITHM.getValue());
+        stored.setGeneration(generation);
+        stored.setPublicKey(Encoders.BASE64.encode(keyPair.getPublic().getEncoded()));
+        stored.setPrivateKey(wrap(keyPair.getPrivate().getEncoded()));
+        stored.setCreatedDate(now);
+        stored.setExpiresAt(now.plus(rotationInterval).plus(publicationDelay).plus(retention));
+        try {
+            jwtSigningKeyRepository.insert(stored);
+        } catch (DuplicateKeyException e) {
+            log.debug("The JWT signing key of generation {} was created by another instance", generation);
+            return Optional.empty();
+        }
+        log.info("Created the JWT signing key {}", stored.getId());
+        return Optional.of(new RingKey(stored.getId(), now, keyPair.getPublic(), keyPair.getPrivate()));
+    }
+
+    private String wrap(byte[] privateKey) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(WRAPPING_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, wrappingKey, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] encrypted = cipher.doFinal(privateKey);
+            return Encoders.BASE64.encode(ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt the JWT signing key", e);
+        }
+    }
+
+    private byte[] unwrap(String privateKey) throws GeneralSecurityException {
+        byte[] wrapped = Decoders.BASE64.decode(privateKey);
+        Cipher cipher = Cipher.getInstance(WRAPPING_TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, wrappingKey, new GCMParameterSpec(TAG_LENGTH, wrapped, 0, IV_LENGTH));
+        return cipher.doFinal(wrapped, IV_LENGTH, wrapped.length - IV_LENGTH);
+    }
+
+    /**
+     * @return the id of the key signing the new tokens.
+     */
+    String getSigningKeyId() {
+        return signingKey.id;
+    }
+
+    private static final class RingKey {
+
+        private final String id;
+
+        private final Instant createdDate;
+
+        private final PublicKey publicKey;
+
+        /**
+         * {@code null} when it cannot be decrypted with the current secret.
+         */
+        private final PrivateKey privateKey;
+
+        private RingKey(String id, Instant createdDate, PublicKey publicKey, PrivateKey privateKey) {
+            this.id = id;
+            this.createdDate = createdDate;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+        }
+
+        private boolean canSign() {
+            return privateKey != null;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.limonnana.skate.security.jwt;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.service.dto.UserDTO;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,13 +16,17 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 
+/**
+ * Issues and validates the JWT.
+ * <p>
+ * A login opens a session, identified by the id of its refresh token. Short-lived access tokens carry the
+ * session id, and are renewed with the refresh token until the session is revoked, see {@link TokenRevocationService}.
+ * Tokens are signed and verified by the {@link JwtKeyRing}.
+ */
 @Component
 public class TokenProvider {
 
@@ -28,65 +34,115 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
-    private Key key;
+    private static final String SESSION_KEY = "sid";
+
+    private static final String TYPE_KEY = "typ";
+
+    private static final String REFRESH_TYPE = "refresh";
+
+    private static final String PROFILE_VERSION_KEY = "pv";
 
     private long tokenValidityInMilliseconds;
 
-    private long tokenValidityInMillisecondsForRememberMe;
+    private long refreshTokenValidityInMilliseconds;
+
+    private long refreshTokenValidityInMillisecondsForRememberMe;
 
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    private final JwtKeyRing jwtKeyRing;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                         JwtKeyRing jwtKeyRing, TokenRevocationService tokenRevocationService) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.jwtKeyRing = jwtKeyRing;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostConstruct
     public void init() {
-        byte[] keyBytes;
-        String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
-        if (!StringUtils.isEmpty(secret)) {
-            log.warn("Warning: the JWT key used is not Base64-encoded. " +
-                "We recommend using the `jhipster.security.authentication.jwt.base64-secret` key for optimum security.");
-            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        } else {
-            log.debug("Using a Base64-encoded JWT secret key");
-            keyBytes = Decoders.BASE64.decode(jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret());
-        }
-        this.key = Keys.hmacShaKeyFor(keyBytes);
-        this.tokenValidityInMilliseconds =
+        this.tokenValidityInMilliseconds = applicationProperties.getJwt().getAccessTokenValidity().toMillis();
+        this.refreshTokenValidityInMilliseconds =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
-        this.tokenValidityInMillisecondsForRememberMe =
+        this.refreshTokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt()
                 .getTokenValidityInSecondsForRememberMe();
     }
 
-    public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .collect(Collectors.joining(","));
-
+    /**
+     * Create a refresh token, which opens a new session.
+     *
+     * @param authentication the authenticated user.
+     * @param sessionId      the id of the new session.
+     * @param rememberMe     whether the session lasts longer.
+     * @return the refresh token.
+     */
+    public String createRefreshToken(Authentication authentication, String sessionId, boolean rememberMe) {
         long now = (new Date()).getTime();
         Date validity;
         if (rememberMe) {
-            validity = new Date(now + this.tokenValidityInMillisecondsForRememberMe);
+            validity = new Date(now + this.refreshTokenValidityInMillisecondsForRememberMe);
         } else {
-            validity = new Date(now + this.tokenValidityInMilliseconds);
+            validity = new Date(now + this.refreshTokenValidityInMilliseconds);
         }
 
-        return Jwts.builder()
+        return jwtKeyRing.sign(Jwts.builder())
+            .setSubject(authentication.getName())
+            .setId(sessionId)
+            .claim(TYPE_KEY, REFRESH_TYPE)
+            .setIssuedAt(new Date(now))
+            .setExpiration(validity)
+            .compact();
+    }
+
+    /**
+     * Create a short-lived access token.
+     *
+     * @param authentication the authenticated user.
+     * @param sessionId      the id of the session of the user.
+     * @return the access token.
+     */
+    public String createToken(Authentication authentication, String sessionId) {
+        return createToken(authentication, sessionId, null);
+    }
+
+    /**
+     * Create a short-lived access token, carrying the version of the profile of the user, so that their account
+     * is served from the cache while it is current.
+     *
+     * @param authentication the authenticated user.
+     * @param sessionId      the id of the session of the user.
+     * @param profile        the account of the user, or {@code null} to leave the version out.
+     * @return the access token.
+     */
+    public String createToken(Authentication authentication, String sessionId, UserDTO profile) {
+        String authorities = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.joining(","));
+
+        long now = (new Date()).getTime();
+        Date validity = new Date(now + this.tokenValidityInMilliseconds);
+
+        JwtBuilder builder = jwtKeyRing.sign(Jwts.builder())
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
+            .claim(SESSION_KEY, sessionId);
+        if (profile != null && profile.getLastModifiedDate() != null) {
+            builder.claim(PROFILE_VERSION_KEY, profile.getLastModifiedDate().toEpochMilli());
+        }
+        return builder
+            .setIssuedAt(new Date(now))
             .setExpiration(validity)
             .compact();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        Claims claims = jwtKeyRing.parse(token);
 
         Collection<? extends GrantedAuthority> authorities =
             Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
@@ -100,7 +156,16 @@ public class TokenProvider {
 
     public boolean validateToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
+            Claims claims = jwtKeyRing.parse(authToken);
+            String sessionId = claims.get(SESSION_KEY, String.class);
+            if (sessionId == null || claims.getIssuedAt() == null || REFRESH_TYPE.equals(claims.get(TYPE_KEY))) {
+                log.info("Invalid JWT token.");
+                return false;
+            }
+            if (tokenRevocationService.isRevoked(sessionId, claims.getSubject(), claims.getIssuedAt().toInstant())) {
+                log.info("Revoked JWT token.");
+                return false;
+            }
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
@@ -108,4 +173,54 @@ public class TokenProvider {
         }
         return false;
     }
+
+    /**
+     * Validate a refresh token.
+     *
+     * @param refreshToken the refresh token.
+     * @return the claims of the token, whose subject is the login of the user and whose id is the session id;
+     * or empty if the token is invalid, expired or revoked.
+     */
+    public Optional<Claims> validateRefreshToken(String refreshToken) {
+        try {
+            Claims claims = jwtKeyRing.parse(refreshToken);
+            if (!REFRESH_TYPE.equals(claims.get(TYPE_KEY)) || claims.getId() == null || claims.getIssuedAt() == null) {
+                log.info("Invalid JWT refresh token.");
+                return Optional.empty();
+            }
+            if (tokenRevocationService.isRevoked(claims.getId(), claims.getSubject(), claims.getIssuedAt().toInstant())) {
+                log.info("Revoked JWT refresh token.");
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT refresh token.");
+            log.trace("Invalid JWT refresh token trace.", e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param token a valid access token.
+     * @return the id of the session of the token.
+     */
+    public String getSessionId(String token) {
+        return jwtKeyRing.parse(token)
+            .get(SESSION_KEY, String.class);
+    }
+
+    /**
+     * @param token the credentials of the current user.
+     * @return the version of the profile carried by the token, empty if it carries none or is not a JWT.
+     */
+    public Optional<Instant> getProfileVersion(String token) {
+        try {
+            Long version = jwtKeyRing.parse(token)
+                .get(PROFILE_VERSION_KEY, Long.class);
+            return Optional.ofNullable(version).map(Instant::ofEpochMilli);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.trace("No profile version in the credentials.", e);
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package com.limonnana.skate.security.jwt;
+
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.domain.RevokedToken;
+import com.limonnana.skate.repository.RevokedTokenRepository;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Revokes the tokens of a login session or of a user, without a database read per authenticated request.
+ * <p>
+ * Revocations are stored in the {@code revoked_token} collection and mirrored in a {@link BloomFilter}
+ * synchronized from it every {@code application.jwt.revocation.sync-interval}. Only tokens matching the
+ * filter, revoked ones and a small share of false positives, are checked against the database.
+ * The filter is rebuilt every {@code rebuild-interval} to forget the expired revocations.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final String SESSION_PREFIX = "session:";
+
+    private static final String USER_PREFIX = "user:";
+
+    /**
+     * Revocations are read again from a bit before the last synchronization, in case the clocks of the instances differ.
+     */
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final ApplicationProperties.Jwt.Revocation revocation;
+
+    private final Duration retention;
+
+    private final Counter revokedLookups;
+
+    private final Counter falsePositiveLookups;
+
+    private volatile BloomFilter revoked;
+
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, ApplicationProperties applicationProperties,
+                                  JHipsterProperties jHipsterProperties, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revocation = applicationProperties.getJwt().getRevocation();
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.retention = Duration.ofSeconds(Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe()));
+        this.revokedLookups = lookups(meterRegistry, "revoked");
+        this.falsePositiveLookups = lookups(meterRegistry, "false-positive");
+        this.revoked = new BloomFilter(revocation.getExpectedRevocations(), revocation.getFalsePositiveRate());
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("jwt.revocation.lookups")
+            .description("The number of tokens matching the revocation filter, checked against the database")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Revoke the tokens of a login session, on logout.
+     *
+     * @param sessionId the id of the session.
+     */
+    public void revokeSession(String sessionId) {
+        revoke(SESSION_PREFIX + sessionId);
+    }
+
+    /**
+     * Revoke all the tokens issued so far to a user, on deletion.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeUser(String login) {
+        revoke(USER_PREFIX + login);
+    }
+
+    /**
+     * Check whether a token was revoked, through its session or its user.
+     *
+     * @param sessionId the id of the session of the token.
+     * @param login     the subject of the token.
+     * @param issuedAt  when the token was issued.
+     * @return true if the token must be refused.
+     */
+    public boolean isRevoked(String sessionId, String login, Instant issuedAt) {
+        return isRevoked(SESSION_PREFIX + sessionId, issuedAt) || isRevoked(USER_PREFIX + login, issuedAt);
+    }
+
+    private boolean isRevoked(String id, Instant issuedAt) {
+        if (!revoked.mightContain(id)) {
+            return false;
+        }
+        // The issue date of a token is in whole seconds: tokens issued during the second of the revocation are revoked too
+        Instant issuedSecond = issuedAt.truncatedTo(ChronoUnit.SECONDS);
+        boolean isRevoked = revokedTokenRepository.findById(id)
+            .filter(revokedToken -> !issuedSecond.isAfter(revokedToken.getRevokedDate().truncatedTo(ChronoUnit.SECONDS)))
+            .isPresent();
+        (isRevoked ? revokedLookups : falsePositiveLookups).increment();
+        return isRevoked;
+    }
+
+    private void revoke(String id) {
+        Instant now = Instant.now();
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setId(id);
+        revokedToken.setRevokedDate(now);
+        revokedToken.setExpiresAt(now.plus(retention));
+        revokedTokenRepository.save(revokedToken);
+        revoked.put(id);
+        log.debug("Revoked tokens of {}", id);
+    }
+
+    /**
+     * Add the revocations of the other instances to the filter.
+     */
+    @Scheduled(fixedDelayString = "${application.jwt.revocation.sync-interval:PT10S}")
+    public void synchronize() {
+        Instant now = Instant.now();
+        List<RevokedToken> revokedTokens = revokedTokenRepository.findAllByRevokedDateAfter(syncedUntil.minus(CLOCK_SKEW));
+        BloomFilter filter = revoked;
+        revokedTokens.forEach(revokedToken -> filter.put(revokedToken.getId()));
+        syncedUntil = now;
+    }
+
+    /**
+     * Replace the filter by one holding only the revocations which have not expired yet.
+     */
+    @Scheduled(fixedDelayString = "${application.jwt.revocation.rebuild-interval:PT1H}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        BloomFilter filter = new BloomFilter(revocation.getExpectedRevocations(), revocation.getFalsePositiveRate());
+        List<RevokedToken> revokedTokens = revokedTokenRepository.findAll();
+        revokedTokens.stream()
+            .filter(revokedToken -> revokedToken.getExpiresAt().isAfter(now))
+            .forEach(revokedToken -> filter.put(revokedToken.getId()));
+        revoked = filter;
+        syncedUntil = now;
+        log.debug("Rebuilt the token revocation filter with {} revocations", revokedTokens.size());
+    }
+}
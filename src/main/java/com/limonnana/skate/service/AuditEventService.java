@@ -23,6 +23,8 @@ import java.util.Optional;
 @Service
 public class AuditEventService {
 
+    private static final String REMOVE_OLD_AUDIT_EVENTS_LOCK = "removeOldAuditEvents";
+
     private final Logger log = LoggerFactory.getLogger(AuditEventService.class);
 
     private final JHipsterProperties jHipsterProperties;
@@ -31,28 +33,32 @@ public class AuditEventService {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final LeaseLockService leaseLockService;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties) {
+        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties,
+        LeaseLockService leaseLockService) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
         this.jHipsterProperties = jhipsterProperties;
+        this.leaseLockService = leaseLockService;
     }
 
     /**
      * Old audit events should be automatically deleted after 30 days.
      *
-     * This is scheduled to get fired at 12:00 (am).
+     * This is scheduled to get fired at 12:00 (am), on a single instance.
      */
     @Scheduled(cron = "0 0 12 * * ?")
     public void removeOldAuditEvents() {
-        persistenceAuditEventRepository
-            .findByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
-            .forEach(auditEvent -> {
-                log.debug("Deleting audit data {}", auditEvent);
-                persistenceAuditEventRepository.delete(auditEvent);
-            });
+        leaseLockService.runExclusively(REMOVE_OLD_AUDIT_EVENTS_LOCK, LeaseLockService.SCHEDULED_JOB_LEASE_TIME, fencingToken -> {
+            // A single query deleting what any run would delete, harmless if another instance took the lease over
+            long deleted = persistenceAuditEventRepository
+                .deleteByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS));
+            log.debug("Deleted {} old audit events", deleted);
+        });
     }
 
     public Page<AuditEvent> findAll(Pageable pageable) {
@@ -0,0 +1,224 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.repository.PlayerRepository;
+import com.limonnana.skate.repository.SpotRepository;
+import com.limonnana.skate.repository.TrickRepository;
+import com.limonnana.skate.repository.UserRepository;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Service keeping the local caches of every instance coherent with writes made by the other instances.
+ * <p>
+ * A single change stream on the database reports the writes to the cached collections, each mapped to the
+ * eviction the writing instance already did locally, and the writes to users and players are reloaded into
+ * the {@link UserSearchService} index, which is not shared either. The resume token is
+ * saved periodically so that a restarted instance resumes where it stopped. When the stream fails the
+ * local caches are cleared, since events may have been missed, and the stream is reopened from now on.
+ * <p>
+ * Change streams require a replica set, so the service only runs when
+ * {@code application.cache.invalidation.enabled} is set.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.cache.invalidation", name = "enabled", havingValue = "true")
+public class CacheInvalidationService {
+
+    static final String RESUME_TOKEN_COLLECTION = "cache_invalidation";
+
+    private static final BsonString RESUME_TOKEN_ID = new BsonString("resume_token");
+
+    private static final List<String> WATCHED_COLLECTIONS = Arrays.asList("event", "trick", "player", "spot", "photo", "jhi_user");
+
+    private static final List<String> WATCHED_OPERATIONS = Arrays.asList("insert", "update", "replace", "delete", "drop", "rename", "dropDatabase");
+
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final CacheManager cacheManager;
+
+    private final LeaderboardService leaderboardService;
+
+    private final UserSearchService userSearchService;
+
+    private final Duration resumeTokenSaveInterval;
+
+    private volatile BsonValue resumeToken;
+
+    private volatile Instant resumeTokenSavedAt = Instant.EPOCH;
+
+    private Disposable subscription;
+
+    public CacheInvalidationService(ReactiveMongoTemplate reactiveMongoTemplate, CacheManager cacheManager,
+                                    LeaderboardService leaderboardService, UserSearchService userSearchService,
+                                    ApplicationProperties applicationProperties) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.cacheManager = cacheManager;
+        this.leaderboardService = leaderboardService;
+        this.userSearchService = userSearchService;
+        this.resumeTokenSaveInterval = applicationProperties.getCache().getInvalidation().getResumeTokenSaveInterval();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = loadResumeToken()
+            .doOnNext(token -> resumeToken = token)
+            .thenMany(Flux.defer(this::changes)
+                .doOnError(this::onStreamError)
+                .retryBackoff(Long.MAX_VALUE, MIN_BACKOFF, MAX_BACKOFF)
+                .repeat())
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Flux<Void> changes() {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+            .filter(new Document("$match", new Document("operationType", new Document("$in", WATCHED_OPERATIONS))
+                .append("$or", Arrays.asList(
+                    new Document("ns.coll", new Document("$in", WATCHED_COLLECTIONS)),
+                    new Document("operationType", "dropDatabase")))));
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+        log.debug("Watching changes to {}, resuming after {}", WATCHED_COLLECTIONS, resumeToken);
+        return reactiveMongoTemplate.changeStream(null, null, options.build(), Document.class)
+            // The user search index is reloaded with blocking queries
+            .publishOn(Schedulers.boundedElastic())
+            .concatMap(event -> {
+                invalidate(event);
+                return saveResumeToken(event.getResumeToken());
+            });
+    }
+
+    private void invalidate(ChangeStreamEvent<Document> event) {
+        OperationType operationType = event.getOperationType();
+        if (operationType != OperationType.INSERT && operationType != OperationType.UPDATE
+            && operationType != OperationType.REPLACE && operationType != OperationType.DELETE) {
+            log.debug("Clearing caches after {} of {}", operationType, event.getCollectionName());
+            clearCaches();
+            userSearchService.rebuild();
+            return;
+        }
+        String id = documentId(event.getRaw().getDocumentKey());
+        String collection = event.getCollectionName();
+        log.debug("Invalidating {} {}", collection, id);
+        switch (collection) {
+            case "event":
+                leaderboardService.evictEvent(id);
+                break;
+            case "trick":
+                cache(TrickRepository.TRICKS_BY_ID_CACHE).evict(id);
+                leaderboardService.evictTrick(id);
+                break;
+            case "player":
+                cache(PlayerRepository.PLAYERS_BY_ID_CACHE).evict(id);
+                userSearchService.refreshPlayer(id);
+                break;
+            case "spot":
+                cache(SpotRepository.SPOTS_BY_ID_CACHE).evict(id);
+                break;
+            case "photo":
+                // Photos are embedded in cached spots, which are not cached by photo id
+                cache(SpotRepository.SPOTS_BY_ID_CACHE).clear();
+                break;
+            case "jhi_user":
+                // Users are embedded in cached players, and cached by login as accounts, but not cached by user id
+                cache(PlayerRepository.PLAYERS_BY_ID_CACHE).clear();
+                cache(UserRepository.ACCOUNTS_BY_LOGIN_CACHE).clear();
+                userSearchService.refreshUser(id);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onStreamError(Throwable error) {
+        log.warn("Change stream failed, clearing caches and watching from now on: {}", error.getMessage());
+        clearCaches();
+        userSearchService.rebuild();
+        resumeToken = null;
+    }
+
+    private void clearCaches() {
+        for (String name : cacheManager.getCacheNames()) {
+            cache(name).clear();
+        }
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name));
+    }
+
+    private Mono<BsonValue> loadResumeToken() {
+        return Mono.from(reactiveMongoTemplate.getCollection(RESUME_TOKEN_COLLECTION).withDocumentClass(BsonDocument.class)
+            .find(Filters.eq("_id", RESUME_TOKEN_ID)).first())
+            .map(document -> document.get("token"))
+            .onErrorResume(error -> {
+                log.warn("Could not load the change stream resume token: {}", error.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> saveResumeToken(BsonValue token) {
+        if (token == null) {
+            return Mono.empty();
+        }
+        resumeToken = token;
+        Instant now = Instant.now();
+        if (now.isBefore(resumeTokenSavedAt.plus(resumeTokenSaveInterval))) {
+            return Mono.empty();
+        }
+        resumeTokenSavedAt = now;
+        BsonDocument document = new BsonDocument("_id", RESUME_TOKEN_ID).append("token", token);
+        return Mono.from(reactiveMongoTemplate.getCollection(RESUME_TOKEN_COLLECTION).withDocumentClass(BsonDocument.class)
+            .replaceOne(Filters.eq("_id", RESUME_TOKEN_ID), document, new ReplaceOptions().upsert(true)))
+            .then();
+    }
+
+    private static String documentId(BsonDocument documentKey) {
+        BsonValue id = documentKey.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+}
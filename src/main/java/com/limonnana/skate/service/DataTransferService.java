@@ -0,0 +1,241 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.domain.Photo;
+import com.limonnana.skate.domain.Player;
+import com.limonnana.skate.domain.Seccion;
+import com.limonnana.skate.domain.Spot;
+import com.limonnana.skate.domain.Trick;
+import com.limonnana.skate.domain.User;
+import com.limonnana.skate.security.AuthoritiesConstants;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service exporting and importing the event data as NDJSON, one document per line.
+ * <p>
+ * Each line is {@code {"collection": <name>, "document": <MongoDB Extended JSON>}}, so ids, dates and
+ * references survive the round trip. Documents are streamed from a cursor on export and inserted in batches
+ * on import, so memory use does not depend on the size of the data.
+ * <p>
+ * Users are exported since players and contributions reference them, but without their credentials: the
+ * password, the activation and reset keys and the authorities are left out. Imported users get the
+ * {@link AuthoritiesConstants#USER} authority and a password no login matches, until they reset it.
+ */
+@Service
+public class DataTransferService {
+
+    public static final String COLLECTION = "collection";
+
+    public static final String DOCUMENT = "document";
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * How the server names the index of {@code _id} in duplicate key errors.
+     */
+    private static final String ID_INDEX = "index: _id_ ";
+
+    private static final List<String> USER_CREDENTIAL_FIELDS = Arrays.asList("password", "activation_key", "reset_key", "reset_date", "authorities");
+
+    /**
+     * As long as a BCrypt hash, to pass the validation of users, but not one, so no password matches it.
+     */
+    private static final String UNUSABLE_PASSWORD = "!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!";
+
+    private static final JsonWriterSettings JSON_WRITER_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private final Logger log = LoggerFactory.getLogger(DataTransferService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final CacheManager cacheManager;
+
+    private final String userCollectionName;
+
+    private final Set<String> collectionNames;
+
+    public DataTransferService(MongoTemplate mongoTemplate, CacheManager cacheManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheManager = cacheManager;
+        this.userCollectionName = mongoTemplate.getCollectionName(User.class);
+        this.collectionNames = Stream.of(User.class, Event.class, Trick.class, Seccion.class, Player.class, Spot.class, Photo.class)
+            .map(mongoTemplate::getCollectionName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * @return the names of the collections that can be exported and imported.
+     */
+    public Set<String> getCollectionNames() {
+        return collectionNames;
+    }
+
+    /**
+     * Export collections.
+     *
+     * @param collections the collections to export, or empty for all of them.
+     * @param writer      the writer of the NDJSON lines.
+     * @return the number of documents exported.
+     * @throws IOException if the writer fails.
+     */
+    public long export(Collection<String> collections, Writer writer) throws IOException {
+        long count = 0;
+        for (String collection : checkCollections(collections)) {
+            log.debug("Exporting collection {}", collection);
+            try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection).find().batchSize(BATCH_SIZE).iterator()) {
+                while (cursor.hasNext()) {
+                    Document document = cursor.next();
+                    if (userCollectionName.equals(collection)) {
+                        USER_CREDENTIAL_FIELDS.forEach(document::remove);
+                    }
+                    writer.write("{\"" + COLLECTION + "\": \"" + collection + "\", \"" + DOCUMENT + "\": ");
+                    writer.write(document.toJson(JSON_WRITER_SETTINGS));
+                    writer.write("}\n");
+                    count++;
+                }
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Import documents. Documents whose id already exists are skipped, so an import that failed can be run
+     * again once the faulty line is fixed.
+     *
+     * @param reader the reader of the NDJSON lines.
+     * @return the number of documents inserted per collection.
+     * @throws IOException if the reader fails.
+     * @throws IllegalArgumentException if a line is not a document of an importable collection, the lines
+     * before it being imported; or if documents were rejected by the database, for instance as their phone
+     * is already used by another user, the other documents being imported. The message gives the number of
+     * documents inserted per collection.
+     */
+    public Map<String, Integer> importDocuments(BufferedReader reader) throws IOException {
+        Map<String, List<Document>> batches = new HashMap<>();
+        Map<String, Integer> inserted = new LinkedHashMap<>();
+        List<String> rejected = new ArrayList<>();
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Document entry = parse(line, lineNumber);
+                String collection = entry.getString(COLLECTION);
+                Document document = entry.get(DOCUMENT, Document.class);
+                if (!collectionNames.contains(collection) || document == null) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is not a document of an importable collection");
+                }
+                if (userCollectionName.equals(collection)) {
+                    USER_CREDENTIAL_FIELDS.forEach(document::remove);
+                    document.put("password", UNUSABLE_PASSWORD);
+                    document.put("authorities", Collections.singletonList(new Document("_id", AuthoritiesConstants.USER)));
+                }
+                List<Document> batch = batches.computeIfAbsent(collection, name -> new ArrayList<>(BATCH_SIZE));
+                batch.add(document);
+                if (batch.size() == BATCH_SIZE) {
+                    insert(collection, batch, inserted, rejected);
+                }
+            }
+            insertAll(batches, inserted, rejected);
+        } catch (IllegalArgumentException e) {
+            insertAll(batches, inserted, rejected);
+            throw new IllegalArgumentException(e.getMessage() + ", the lines before it were imported: " + inserted
+                + (rejected.isEmpty() ? "" : " but these documents were rejected: " + rejected), e);
+        } finally {
+            cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        }
+        if (!rejected.isEmpty()) {
+            throw new IllegalArgumentException("These documents were rejected: " + rejected + ", the others were imported: " + inserted);
+        }
+        return inserted;
+    }
+
+    private Set<String> checkCollections(Collection<String> collections) {
+        if (collections.isEmpty()) {
+            return collectionNames;
+        }
+        for (String collection : collections) {
+            if (!collectionNames.contains(collection)) {
+                throw new IllegalArgumentException("Collection " + collection + " cannot be exported");
+            }
+        }
+        return new LinkedHashSet<>(collections);
+    }
+
+    private static Document parse(String line, int lineNumber) {
+        try {
+            return Document.parse(line);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + " is not valid JSON", e);
+        }
+    }
+
+    private void insertAll(Map<String, List<Document>> batches, Map<String, Integer> inserted, List<String> rejected) {
+        for (Map.Entry<String, List<Document>> batch : batches.entrySet()) {
+            insert(batch.getKey(), batch.getValue(), inserted, rejected);
+        }
+    }
+
+    /**
+     * Insert a batch, skipping the documents whose id already exists and adding the other documents the
+     * database rejects, such as users whose phone is already used, to the rejected ones.
+     */
+    private void insert(String collection, List<Document> batch, Map<String, Integer> inserted, List<String> rejected) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int count = batch.size();
+        try {
+            mongoTemplate.getCollection(collection).insertMany(batch, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (!isDuplicateId(error)) {
+                    rejected.add(collection + " " + batch.get(error.getIndex()).get("_id") + " (" + error.getMessage() + ")");
+                }
+            }
+            count -= e.getWriteErrors().size();
+        }
+        log.debug("Imported {} documents into {}", count, collection);
+        inserted.merge(collection, count, Integer::sum);
+        batch.clear();
+    }
+
+    private static boolean isDuplicateId(BulkWriteError error) {
+        return ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY && error.getMessage().contains(ID_INDEX);
+    }
+}
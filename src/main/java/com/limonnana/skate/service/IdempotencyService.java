@@ -0,0 +1,170 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.domain.IdempotentRequest;
+import com.limonnana.skate.repository.IdempotentRequestRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service deduplicating client retries of non-idempotent requests.
+ * <p>
+ * The first request with a key claims it with a single insert on the unique {@code _id}; retries
+ * find the claimed key and replay the recorded outcome instead of applying the request again.
+ * A claim left neither completed nor abandoned for {@link #CLAIM_TIMEOUT}, by an instance that stopped
+ * while applying the request, can be taken over by a retry of the same request. Each claim carries an owner
+ * token, so that the request it was taken from can neither complete nor abandon it anymore.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Much longer than a request takes to apply, so that a claim is only taken over once its request was lost.
+     */
+    public static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotentRequestRepository idempotentRequestRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    public IdempotencyService(IdempotentRequestRepository idempotentRequestRepository, MongoTemplate mongoTemplate) {
+        this.idempotentRequestRepository = idempotentRequestRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Claim a key before applying a request.
+     *
+     * @param scope       the kind of request, keys of different scopes don't collide.
+     * @param key         the key sent by the client.
+     * @param fingerprint a digest of the request, see {@link #fingerprint(String...)}.
+     * @return the claim, held by this request unless another request claimed the key first and its claim
+     * didn't time out; a held claim must be completed or abandoned once the request is applied.
+     */
+    public Claim claim(String scope, String key, String fingerprint) {
+        IdempotentRequest request = new IdempotentRequest();
+        request.setId(id(scope, key));
+        request.setFingerprint(fingerprint);
+        request.setOwner(UUID.randomUUID().toString());
+        try {
+            idempotentRequestRepository.insert(request);
+            return new Claim(request.getId(), request.getOwner(), null);
+        } catch (DuplicateKeyException e) {
+            if (reclaim(request)) {
+                log.warn("Took over the timed out claim of idempotency key {}", request.getId());
+                return new Claim(request.getId(), request.getOwner(), null);
+            }
+            log.debug("Replaying request with idempotency key {}", request.getId());
+            return new Claim(request.getId(), null, idempotentRequestRepository.findById(request.getId()).orElse(request));
+        }
+    }
+
+    /**
+     * Take over a claim of the same request which was neither completed nor abandoned in time, in a single
+     * conditional update so that only one retry takes it over.
+     */
+    private boolean reclaim(IdempotentRequest request) {
+        Query query = new Query(Criteria.where("_id").is(request.getId())
+            .and("completed").is(false)
+            .and("fingerprint").is(request.getFingerprint())
+            .and("createdDate").lt(request.getCreatedDate().minus(CLAIM_TIMEOUT)));
+        Update update = Update.update("createdDate", request.getCreatedDate()).set("owner", request.getOwner());
+        return mongoTemplate.updateFirst(query, update, IdempotentRequest.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Record the outcome of a request whose key was claimed, unless its claim was taken over meanwhile.
+     *
+     * @param claim      the claim held by the request.
+     * @param userId     the id of the user the request was applied for.
+     * @param resourceId the id of the resource created by the request.
+     * @return whether the claim was still held by the request.
+     */
+    public boolean complete(Claim claim, String userId, String resourceId) {
+        Update update = Update.update("completed", true).set("userId", userId).set("resourceId", resourceId);
+        if (mongoTemplate.updateFirst(held(claim), update, IdempotentRequest.class).getMatchedCount() > 0) {
+            return true;
+        }
+        log.warn("Claim of idempotency key {} was taken over before it completed", claim.id);
+        return false;
+    }
+
+    /**
+     * Release the key of a request that failed, so that the client can retry it, unless its claim was taken
+     * over meanwhile.
+     *
+     * @param claim the claim held by the request.
+     */
+    public void abandon(Claim claim) {
+        mongoTemplate.remove(held(claim), IdempotentRequest.class);
+    }
+
+    private static Query held(Claim claim) {
+        if (!claim.isHeld()) {
+            throw new IllegalStateException("Idempotency key " + claim.id + " is claimed by another request");
+        }
+        return new Query(Criteria.where("_id").is(claim.id).and("owner").is(claim.owner));
+    }
+
+    /**
+     * Digest of the parts of a request, to detect a key reused for a different request.
+     *
+     * @param parts the parts of the request.
+     * @return the digest.
+     */
+    public static String fingerprint(String... parts) {
+        return DigestUtils.md5DigestAsHex(String.join("\u0000", parts).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String id(String scope, String key) {
+        return scope + ":" + key;
+    }
+
+    /**
+     * The claim of a key, either held by the request or by the request that claimed the key first.
+     */
+    public static final class Claim {
+
+        private final String id;
+
+        private final String owner;
+
+        private final IdempotentRequest previous;
+
+        private Claim(String id, String owner, IdempotentRequest previous) {
+            this.id = id;
+            this.owner = owner;
+            this.previous = previous;
+        }
+
+        /**
+         * @return whether the request holds the claim, and must apply the request.
+         */
+        public boolean isHeld() {
+            return owner != null;
+        }
+
+        /**
+         * @return the request holding the claim instead, whose outcome is to be replayed.
+         */
+        public Optional<IdempotentRequest> getPrevious() {
+            return Optional.ofNullable(previous);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.limonnana.skate.service;
+
+/**
+ * Thrown when a merge patch targets a field that cannot be patched or carries an invalid value.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+
+    private final String field;
+
+    public InvalidPatchException(String entityName, String field) {
+        super("Field '" + field + "' of " + entityName + " cannot be patched with the given value");
+        this.entityName = entityName;
+        this.field = field;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,188 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.config.ReplicaReadRouting;
+import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.domain.Trick;
+import com.limonnana.skate.domain.User;
+import com.limonnana.skate.service.dto.LeaderboardEntryDTO;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.limonnana.skate.repository.MongoIds.toStoredId;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+/**
+ * Service computing the top contributors of tricks and events.
+ * <p>
+ * Contributions are summed by a MongoDB aggregation pipeline over {@link Trick#getSecciones()}, and the
+ * {@link #MAX_SIZE} best contributors are cached until the next contribution.
+ */
+@Service
+public class LeaderboardService {
+
+    public static final String TRICK_LEADERBOARD_CACHE = "trickLeaderboard";
+
+    public static final String EVENT_LEADERBOARD_CACHE = "eventLeaderboard";
+
+    /**
+     * Number of contributors computed and cached for each leaderboard.
+     */
+    public static final int MAX_SIZE = 100;
+
+    private static final String ID = "_id";
+
+    private final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public LeaderboardService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Get the best contributors of a trick.
+     *
+     * @param trickId the id of the trick.
+     * @return at most {@link #MAX_SIZE} contributors, by decreasing amount.
+     */
+    @Cacheable(cacheNames = TRICK_LEADERBOARD_CACHE)
+    public List<LeaderboardEntryDTO> getTrickLeaderboard(String trickId) {
+        log.debug("Computing leaderboard of Trick : {}", trickId);
+        return ReplicaReadRouting.onPrimary(() -> aggregate(Collections.singletonList(toStoredId(trickId))));
+    }
+
+    /**
+     * Get the best contributors over all the tricks of an event.
+     *
+     * @param eventId the id of the event.
+     * @return at most {@link #MAX_SIZE} contributors, by decreasing amount.
+     */
+    @Cacheable(cacheNames = EVENT_LEADERBOARD_CACHE)
+    public List<LeaderboardEntryDTO> getEventLeaderboard(String eventId) {
+        log.debug("Computing leaderboard of Event : {}", eventId);
+        return ReplicaReadRouting.onPrimary(() -> computeEventLeaderboard(eventId));
+    }
+
+    private List<LeaderboardEntryDTO> computeEventLeaderboard(String eventId) {
+        Query query = new Query(Criteria.where(ID).is(eventId));
+        query.fields().include("trick");
+        Document event = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Event.class));
+        List<Object> trickIds = new ArrayList<>();
+        if (event != null && event.get("trick") instanceof List) {
+            for (Object trick : (List<?>) event.get("trick")) {
+                if (trick instanceof DBRef) {
+                    trickIds.add(((DBRef) trick).getId());
+                }
+            }
+        }
+        if (trickIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return aggregate(trickIds);
+    }
+
+    /**
+     * Invalidate the leaderboards a contribution to a trick changes.
+     *
+     * @param trickId the id of the trick.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = TRICK_LEADERBOARD_CACHE),
+        @CacheEvict(cacheNames = EVENT_LEADERBOARD_CACHE, allEntries = true)
+    })
+    public void evictTrick(String trickId) {
+        log.debug("Evicting leaderboards of Trick : {}", trickId);
+    }
+
+    /**
+     * Invalidate the leaderboard of an event whose tricks changed.
+     *
+     * @param eventId the id of the event.
+     */
+    @CacheEvict(cacheNames = EVENT_LEADERBOARD_CACHE)
+    public void evictEvent(String eventId) {
+        log.debug("Evicting leaderboard of Event : {}", eventId);
+    }
+
+    private List<LeaderboardEntryDTO> aggregate(List<Object> storedTrickIds) {
+        Aggregation aggregation = newAggregation(
+            match(Criteria.where(ID).in(storedTrickIds)),
+            unwind("secciones"),
+            match(Criteria.where("secciones.user").ne(null)),
+            group("secciones.user").sum("secciones.shekel").as("shekel").count().as("contributions"),
+            sort(Sort.Direction.DESC, "shekel"),
+            limit(MAX_SIZE)
+        );
+        List<Document> totals = mongoTemplate
+            .aggregate(aggregation, mongoTemplate.getCollectionName(Trick.class), Document.class)
+            .getMappedResults();
+
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        List<Object> userIds = new ArrayList<>();
+        for (Document total : totals) {
+            Object userId = userId(total.get(ID));
+            if (userId == null) {
+                continue;
+            }
+            LeaderboardEntryDTO entry = new LeaderboardEntryDTO();
+            entry.setUserId(userId.toString());
+            entry.setShekel(((Number) total.get("shekel")).longValue());
+            entry.setContributions(((Number) total.get("contributions")).longValue());
+            entries.add(entry);
+            userIds.add(userId);
+        }
+        fillUsers(entries, userIds);
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Load only the names of the contributors, users also hold large pictures.
+     */
+    private void fillUsers(List<LeaderboardEntryDTO> entries, List<Object> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Query query = new Query(Criteria.where(ID).in(userIds));
+        query.fields().include("login").include("firstName").include("lastName");
+        Map<String, User> users = new HashMap<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            users.put(user.getId(), user);
+        }
+        for (LeaderboardEntryDTO entry : entries) {
+            User user = users.get(entry.getUserId());
+            if (user != null) {
+                entry.setLogin(user.getLogin());
+                entry.setFirstName(user.getFirstName());
+                entry.setLastName(user.getLastName());
+            }
+        }
+    }
+
+    private static Object userId(Object reference) {
+        if (reference instanceof DBRef) {
+            return ((DBRef) reference).getId();
+        }
+        if (reference instanceof Document) {
+            return ((Document) reference).get("$id");
+        }
+        return null;
+    }
+}
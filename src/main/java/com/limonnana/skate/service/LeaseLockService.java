@@ -0,0 +1,119 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.domain.LeaseLock;
+import com.limonnana.skate.repository.LeaseLockRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * Service for lease locks shared by all the application instances through MongoDB.
+ * <p>
+ * A lock is acquired with a single conditional upsert, which only matches a lock that expired or that this
+ * instance already holds: when another instance holds it, the upsert collides on {@code _id} and fails.
+ */
+@Service
+public class LeaseLockService {
+
+    /**
+     * Long enough for the scheduled jobs to run, and for every instance to fire the same cron tick.
+     */
+    public static final Duration SCHEDULED_JOB_LEASE_TIME = Duration.ofMinutes(10);
+
+    private final Logger log = LoggerFactory.getLogger(LeaseLockService.class);
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    private final MongoTemplate mongoTemplate;
+
+    private final LeaseLockRepository leaseLockRepository;
+
+    public LeaseLockService(MongoTemplate mongoTemplate, LeaseLockRepository leaseLockRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseLockRepository = leaseLockRepository;
+    }
+
+    /**
+     * Acquire a lock, or renew it if this instance already holds it.
+     *
+     * @param name      the name of the lock.
+     * @param leaseTime how long the lock is held, unless renewed.
+     * @return the fencing token of this lease, or empty if another instance holds the lock.
+     */
+    public Optional<Long> tryAcquire(String name, Duration leaseTime) {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("_id").is(name)
+            .orOperator(Criteria.where("expiresAt").lte(now), Criteria.where("owner").is(owner)));
+        Update update = new Update()
+            .set("owner", owner)
+            .set("acquiredDate", now)
+            .set("expiresAt", now.plus(leaseTime))
+            .inc("fencingToken", 1);
+        try {
+            LeaseLock lock = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), LeaseLock.class);
+            log.debug("Acquired lock {}", lock);
+            return Optional.of(lock.getFencingToken());
+        } catch (DuplicateKeyException e) {
+            log.debug("Lock {} is held by another instance", name);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Check that a lease is still held, before a write that must not be made once it was taken over.
+     *
+     * @param name         the name of the lock.
+     * @param fencingToken the fencing token of the lease.
+     * @return true if the lease is still held and not expired.
+     */
+    public boolean isHeld(String name, long fencingToken) {
+        return mongoTemplate.exists(new Query(Criteria.where("_id").is(name)
+            .and("owner").is(owner)
+            .and("fencingToken").is(fencingToken)
+            .and("expiresAt").gt(Instant.now())), LeaseLock.class);
+    }
+
+    /**
+     * Run a task on this instance only if it acquires the lock.
+     * <p>
+     * The lease is not released when the task ends, so that instances firing the same tick a bit later skip it.
+     *
+     * @param name      the name of the lock.
+     * @param leaseTime how long the lock is held.
+     * @param task      the task, given the fencing token of the lease.
+     * @return true if the task was run.
+     */
+    public boolean runExclusively(String name, Duration leaseTime, LongConsumer task) {
+        Optional<Long> fencingToken = tryAcquire(name, leaseTime);
+        if (!fencingToken.isPresent()) {
+            log.debug("Skipping {}, run by another instance", name);
+            return false;
+        }
+        task.accept(fencingToken.get());
+        return true;
+    }
+
+    public List<LeaseLock> findAll() {
+        return leaseLockRepository.findAll();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,179 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.domain.MailMessage;
+import com.limonnana.skate.repository.MailMessageRepository;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Service sending the emails of the outbox.
+ * <p>
+ * Due messages are sent in batches over one SMTP connection, kept open while batches keep coming and closed
+ * once the outbox is empty. A message that fails is retried with an exponential backoff, up to a maximum
+ * number of attempts. Only the instance holding the outbox lease dispatches.
+ */
+@Service
+public class MailDispatcher {
+
+    static final String OUTBOX_LOCK = "mailOutbox";
+
+    private static final Duration OUTBOX_LEASE_TIME = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail.Outbox outbox;
+
+    private final JavaMailSenderImpl mailSender;
+
+    private final MailMessageRepository mailMessageRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final LeaseLockService leaseLockService;
+
+    private Transport transport;
+
+    public MailDispatcher(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                          JavaMailSenderImpl mailSender, MailMessageRepository mailMessageRepository,
+                          MongoTemplate mongoTemplate, LeaseLockService leaseLockService) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.outbox = applicationProperties.getMail().getOutbox();
+        this.mailSender = mailSender;
+        this.mailMessageRepository = mailMessageRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.leaseLockService = leaseLockService;
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.dispatch-interval:PT5S}")
+    public void dispatchPending() {
+        if (!outbox.isEnabled()) {
+            return;
+        }
+        leaseLockService.runExclusively(OUTBOX_LOCK, OUTBOX_LEASE_TIME, fencingToken -> {
+            while (dispatch() == outbox.getBatchSize() && leaseLockService.isHeld(OUTBOX_LOCK, fencingToken)) {
+                log.debug("Outbox batch full, dispatching the next one");
+            }
+        });
+    }
+
+    /**
+     * Send one batch of due messages.
+     *
+     * @return the number of messages attempted.
+     */
+    public synchronized int dispatch() {
+        List<MailMessage> batch = mailMessageRepository.findByStatusAndNextAttemptDateLessThanEqualOrderByNextAttemptDate(
+            MailMessage.Status.PENDING, Instant.now(), PageRequest.of(0, outbox.getBatchSize()));
+        if (batch.isEmpty()) {
+            closeTransport();
+            return 0;
+        }
+        int attempted = 0;
+        for (MailMessage message : batch) {
+            Transport connected;
+            try {
+                connected = connectedTransport();
+            } catch (MessagingException e) {
+                log.warn("Could not connect to the mail server, {} emails left in the outbox", batch.size() - attempted, e);
+                break;
+            }
+            attempted++;
+            try {
+                MimeMessage mimeMessage = toMimeMessage(message);
+                connected.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+            } catch (MessagingException | RuntimeException e) {
+                log.warn("Email could not be sent to user '{}'", message.getTo(), e);
+                retryLater(message, e);
+                continue;
+            }
+            markSent(message);
+            log.debug("Sent email to User '{}'", message.getTo());
+        }
+        return attempted;
+    }
+
+    @PreDestroy
+    public synchronized void closeTransport() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Could not close the mail server connection", e);
+            }
+            transport = null;
+        }
+    }
+
+    private Transport connectedTransport() throws MessagingException {
+        if (transport == null || !transport.isConnected()) {
+            transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+            transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        }
+        return transport;
+    }
+
+    private MimeMessage toMimeMessage(MailMessage mailMessage) throws MessagingException {
+        MimeMessage mimeMessage = new MimeMessage(mailSender.getSession());
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mailMessage.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mailMessage.getTo());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mailMessage.getSubject());
+        message.setText(mailMessage.getContent(), mailMessage.isHtml());
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    /**
+     * Record each message as soon as it is sent, so that it is not sent again if the batch is interrupted.
+     */
+    private void markSent(MailMessage message) {
+        Instant now = Instant.now();
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(message.getId())),
+            new Update()
+                .set("status", MailMessage.Status.SENT)
+                .set("sentDate", now)
+                .set("expireDate", now.plusSeconds(MailMessage.RETENTION_SECONDS)),
+            MailMessage.class);
+    }
+
+    private void retryLater(MailMessage message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error.getMessage());
+        if (attempts >= outbox.getMaxAttempts()) {
+            message.setStatus(MailMessage.Status.FAILED);
+            message.setExpireDate(Instant.now().plusSeconds(MailMessage.RETENTION_SECONDS));
+        } else {
+            message.setNextAttemptDate(Instant.now().plus(backoff(attempts)));
+        }
+        mailMessageRepository.save(message);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = outbox.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(outbox.getMaxBackoff()) > 0 ? outbox.getMaxBackoff() : backoff;
+    }
+}
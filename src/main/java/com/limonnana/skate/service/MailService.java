@@ -1,104 +1,71 @@
 package com.limonnana.skate.service;
 
+import com.limonnana.skate.config.AsyncConfiguration;
+import com.limonnana.skate.domain.MailMessage;
 import com.limonnana.skate.domain.User;
-
-import io.github.jhipster.config.JHipsterProperties;
-
-import java.nio.charset.StandardCharsets;
-import java.util.Locale;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
+import com.limonnana.skate.repository.MailMessageRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are written to the outbox and sent by the {@link MailDispatcher}, so they survive a mail server
+ * outage or a restart. Templated emails are rendered asynchronously on the mail executor.
  */
 @Service
 public class MailService {
 
     private final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
-
-    private static final String BASE_URL = "baseUrl";
-
-    private final JHipsterProperties jHipsterProperties;
+    private final MailMessageRepository mailMessageRepository;
 
-    private final JavaMailSender javaMailSender;
+    private final MailTemplateRenderer mailTemplateRenderer;
 
-    private final MessageSource messageSource;
-
-    private final SpringTemplateEngine templateEngine;
-
-    public MailService(JHipsterProperties jHipsterProperties, JavaMailSender javaMailSender,
-            MessageSource messageSource, SpringTemplateEngine templateEngine) {
-
-        this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+    public MailService(MailMessageRepository mailMessageRepository, MailTemplateRenderer mailTemplateRenderer) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.mailTemplateRenderer = mailTemplateRenderer;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        log.debug("Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+        log.debug("Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart, isHtml, to, subject, content);
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        }  catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-        }
+        MailMessage message = new MailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setContent(content);
+        message.setMultipart(isMultipart);
+        message.setHtml(isHtml);
+        mailMessageRepository.insert(message);
     }
 
-    @Async
+    @Async(AsyncConfiguration.MAIL_EXECUTOR)
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        MailTemplateRenderer.RenderedMail mail = mailTemplateRenderer.render(user, templateName, titleKey);
+        sendEmail(user.getEmail(), mail.getSubject(), mail.getContent(), false, true);
     }
 
-    @Async
+    @Async(AsyncConfiguration.MAIL_EXECUTOR)
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
+    @Async(AsyncConfiguration.MAIL_EXECUTOR)
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
+    @Async(AsyncConfiguration.MAIL_EXECUTOR)
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
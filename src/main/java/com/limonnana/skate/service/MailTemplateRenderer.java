@@ -0,0 +1,189 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.domain.User;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Service rendering the subject and content of templated emails.
+ * <p>
+ * Each {@code (templateName, titleKey, langKey)} is rendered once, with markers in place of the user
+ * properties: the static fragments between the markers and the subject are then reused, and sending an
+ * email only escapes and concatenates the properties of its user. A user missing one of the properties the
+ * template prints is rendered by the template engine, as are all emails when the Thymeleaf cache is disabled.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final char MARKER = '\uE000';
+
+    /**
+     * The user properties an email template may print.
+     */
+    private enum Variable {
+        LOGIN(User::getLogin, User::setLogin),
+        FIRST_NAME(User::getFirstName, User::setFirstName),
+        LAST_NAME(User::getLastName, User::setLastName),
+        EMAIL(User::getEmail, User::setEmail),
+        ACTIVATION_KEY(User::getActivationKey, User::setActivationKey),
+        RESET_KEY(User::getResetKey, User::setResetKey);
+
+        private final Function<User, String> getter;
+
+        private final BiConsumer<User, String> setter;
+
+        Variable(Function<User, String> getter, BiConsumer<User, String> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MessageSource messageSource;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final boolean cacheable;
+
+    private final ConcurrentMap<String, CompiledMail> compiledMails = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(JHipsterProperties jHipsterProperties, MessageSource messageSource,
+                                SpringTemplateEngine templateEngine, ThymeleafProperties thymeleafProperties) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.messageSource = messageSource;
+        this.templateEngine = templateEngine;
+        this.cacheable = thymeleafProperties.isCache();
+    }
+
+    /**
+     * Render an email for a user.
+     *
+     * @param user         the user, whose {@code langKey} selects the locale.
+     * @param templateName the Thymeleaf template of the content.
+     * @param titleKey     the message key of the subject.
+     * @return the subject and content.
+     */
+    public RenderedMail render(User user, String templateName, String titleKey) {
+        if (cacheable) {
+            CompiledMail compiled = compiledMails.computeIfAbsent(templateName + '\u0000' + titleKey + '\u0000' + user.getLangKey(),
+                key -> compile(templateName, titleKey, user.getLangKey()));
+            String content = compiled.render(user);
+            if (content != null) {
+                return new RenderedMail(compiled.subject, content);
+            }
+        }
+        Locale locale = Locale.forLanguageTag(user.getLangKey());
+        return new RenderedMail(messageSource.getMessage(titleKey, null, locale), process(templateName, user, locale));
+    }
+
+    private CompiledMail compile(String templateName, String titleKey, String langKey) {
+        log.debug("Compiling email template {} for language {}", templateName, langKey);
+        Locale locale = Locale.forLanguageTag(langKey);
+        User placeholder = new User();
+        placeholder.setLangKey(langKey);
+        for (Variable variable : Variable.values()) {
+            variable.setter.accept(placeholder, "" + MARKER + variable.ordinal() + MARKER);
+        }
+        String content = process(templateName, placeholder, locale);
+
+        List<String> fragments = new ArrayList<>();
+        List<Variable> variables = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = content.indexOf(MARKER, start)) >= 0) {
+            int close = content.indexOf(MARKER, open + 1);
+            fragments.add(content.substring(start, open));
+            variables.add(Variable.values()[Integer.parseInt(content.substring(open + 1, close))]);
+            start = close + 1;
+        }
+        fragments.add(content.substring(start));
+        return new CompiledMail(messageSource.getMessage(titleKey, null, locale), fragments, variables);
+    }
+
+    private String process(String templateName, User user, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private static final class CompiledMail {
+
+        private final String subject;
+
+        private final String[] fragments;
+
+        private final Variable[] variables;
+
+        private final int staticLength;
+
+        private CompiledMail(String subject, List<String> fragments, List<Variable> variables) {
+            this.subject = subject;
+            this.fragments = fragments.toArray(new String[0]);
+            this.variables = variables.toArray(new Variable[0]);
+            this.staticLength = fragments.stream().mapToInt(String::length).sum();
+        }
+
+        /**
+         * @return the content, or null if the user misses a printed property.
+         */
+        private String render(User user) {
+            StringBuilder content = new StringBuilder(staticLength + 32 * variables.length);
+            content.append(fragments[0]);
+            for (int i = 0; i < variables.length; i++) {
+                String value = variables[i].getter.apply(user);
+                if (value == null) {
+                    return null;
+                }
+                content.append(HtmlEscape.escapeHtml4Xml(value)).append(fragments[i + 1]);
+            }
+            return content.toString();
+        }
+    }
+
+    /**
+     * The subject and content of an email.
+     */
+    public static final class RenderedMail {
+
+        private final String subject;
+
+        private final String content;
+
+        public RenderedMail(String subject, String content) {
+            this.subject = subject;
+            this.content = content;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getContent() {
+            return content;
+        }
+    }
+}
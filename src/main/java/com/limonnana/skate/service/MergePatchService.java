@@ -0,0 +1,118 @@
+package com.limonnana.skate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service applying JSON Merge Patch documents (RFC 7396) directly as MongoDB updates.
+ * <p>
+ * Each member of the patch becomes a {@code $set}, or a {@code $unset} when its value is {@code null},
+ * so the document is neither read before the update nor rewritten as a whole.
+ * Nested members are replaced, not merged: the patchable fields of the domain entities are either
+ * simple values or references.
+ */
+@Service
+public class MergePatchService {
+
+    private final Logger log = LoggerFactory.getLogger(MergePatchService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public MergePatchService(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Apply a merge patch to a document.
+     *
+     * @param type       the entity class.
+     * @param entityName the entity name used in error messages.
+     * @param id         the id of the document to patch.
+     * @param patch      the merge patch, keyed by entity property name.
+     * @param patchable  the properties the patch may change.
+     * @param required   the properties that cannot be removed.
+     * @param <T>        the entity type.
+     * @return the patched entity, or empty if no document has this id.
+     * @throws InvalidPatchException if the patch targets a property that is not patchable or has an invalid value.
+     */
+    public <T> Optional<T> patch(Class<T> type, String entityName, String id, Map<String, Object> patch,
+                                 Set<String> patchable, Set<String> required) {
+        log.debug("Request to patch {} {} : {}", entityName, id, patch);
+        return apply(type, id, toUpdate(type, entityName, patch, patchable, required));
+    }
+
+    /**
+     * Apply an update to a document in a single round-trip.
+     *
+     * @param type   the entity class.
+     * @param id     the id of the document to update.
+     * @param update the update, an empty update leaves the document untouched.
+     * @param <T>    the entity type.
+     * @return the updated entity, or empty if no document has this id.
+     */
+    public <T> Optional<T> apply(Class<T> type, String id, Update update) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        if (update.getUpdateObject().isEmpty()) {
+            return Optional.ofNullable(mongoTemplate.findOne(query, type));
+        }
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), type));
+    }
+
+    /**
+     * Translate a merge patch into a MongoDB update.
+     *
+     * @param type       the entity class.
+     * @param entityName the entity name used in error messages.
+     * @param patch      the merge patch, keyed by entity property name.
+     * @param patchable  the properties the patch may change.
+     * @param required   the properties that cannot be removed.
+     * @return the update, mapped to the stored field names by the {@link MongoTemplate}.
+     * @throws InvalidPatchException if the patch targets a property that is not patchable or has an invalid value.
+     */
+    public Update toUpdate(Class<?> type, String entityName, Map<String, Object> patch,
+                           Set<String> patchable, Set<String> required) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Update update = new Update();
+        for (Map.Entry<String, Object> member : patch.entrySet()) {
+            String name = member.getKey();
+            MongoPersistentProperty property = entity.getPersistentProperty(name);
+            if (!patchable.contains(name) || property == null) {
+                throw new InvalidPatchException(entityName, name);
+            }
+            if (member.getValue() == null) {
+                if (required.contains(name)) {
+                    throw new InvalidPatchException(entityName, name);
+                }
+                update.unset(name);
+            } else {
+                update.set(name, convert(entityName, property, member.getValue()));
+            }
+        }
+        return update;
+    }
+
+    private Object convert(String entityName, MongoPersistentProperty property, Object value) {
+        try {
+            return objectMapper.convertValue(value, objectMapper.constructType(property.getField().getGenericType()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPatchException(entityName, property.getName());
+        }
+    }
+}
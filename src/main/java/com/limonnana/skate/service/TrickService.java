@@ -0,0 +1,81 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.domain.Seccion;
+import com.limonnana.skate.domain.Trick;
+import com.limonnana.skate.repository.SeccionRepository;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Service keeping the current amount and the percentages of tricks in line with their contributions.
+ */
+@Service
+public class TrickService {
+
+    private final SeccionRepository seccionRepository;
+
+    public TrickService(SeccionRepository seccionRepository) {
+        this.seccionRepository = seccionRepository;
+    }
+
+    /**
+     * Recompute the amounts of a trick whose objective changed. The objective is raised to the current amount
+     * when the contributions exceed it.
+     *
+     * @param trick the trick, with its new objective.
+     * @return the trick.
+     */
+    public Trick updateAmounts(Trick trick) {
+        int currentAmount = calculateCurrentAmount(trick.getSecciones());
+        if (currentAmount > trick.getObjectiveAmount()) {
+            trick.setObjectiveAmount(currentAmount);
+        }
+        resetTrickQuantities(trick);
+        trick.setCurrentAmount(currentAmount);
+        return setTotalPercentages(trick);
+    }
+
+    public int calculatePorcentage(int shekel, int objectiveAmount) {
+        float shekelF = shekel;
+        float objectiveAmountF = objectiveAmount;
+        float result = (shekelF / objectiveAmountF) * 100;
+        return (int) result;
+    }
+
+    public Trick setTotalPercentages(Trick trick) {
+        float ca = calculateCurrentAmount(trick.getSecciones());
+        float finalAmount = trick.getObjectiveAmount().intValue();
+        float percentageDone = (ca / finalAmount) * 100;
+        float percentageToGo = 100 - percentageDone;
+        int pd = Math.round(percentageDone);
+        int ptg = Math.round(percentageToGo);
+        trick.setPercentageCovered(pd);
+        trick.setPercentageToGo(ptg);
+        return trick;
+    }
+
+    public int calculateCurrentAmount(Set<Seccion> secciones) {
+        int result = 0;
+        for (Seccion s : secciones) {
+            result = result + s.getShekel();
+        }
+        return result;
+    }
+
+    /**
+     * Recompute the percentage of each contribution to a trick, after its objective changed.
+     *
+     * @param trick the trick.
+     * @return the trick.
+     */
+    public Trick resetTrickQuantities(Trick trick) {
+        for (Seccion s : trick.getSecciones()) {
+            int newPorcentaje = calculatePorcentage(s.getShekel(), trick.getObjectiveAmount());
+            s.setPorcentaje(newPorcentaje);
+            seccionRepository.save(s);
+        }
+        return trick;
+    }
+}
@@ -0,0 +1,435 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.domain.Player;
+import com.limonnana.skate.domain.User;
+import com.limonnana.skate.repository.PlayerRepository;
+import com.limonnana.skate.service.dto.UserSearchResultDTO;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Service searching users and players by prefixes of their names, login and phone.
+ * <p>
+ * The words of every user are held in an in-memory prefix trie, built when the application is ready and
+ * kept up to date by the saves and deletions of users and players. A search walks the trie breadth-first
+ * from the node of its longest word, one level at a time, until it holds the requested number of matches or
+ * visited {@link #MAX_VISITED_NODES} nodes, whatever the other words and filters reject. The matches are then
+ * ranked: users with more words typed in full first, then with the fewest letters left to complete, then by
+ * name.
+ */
+@Service
+public class UserSearchService extends AbstractMongoEventListener<Object> {
+
+    public static final int MAX_LIMIT = 50;
+
+    public static final int MAX_VISITED_NODES = 10000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+
+    private static final Pattern PHONE_QUERY = Pattern.compile("[\\d\\s+()\\-.]+");
+
+    private static final Comparator<Match> MATCH_ORDER = Comparator.comparingInt((Match match) -> -match.wholeWords)
+        .thenComparingInt(match -> match.lettersLeft)
+        .thenComparing(match -> match.entry.name);
+
+    private final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final PlayerRepository playerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Map<String, String> playerUserIds = new HashMap<>();
+
+    private final Map<String, String> userPlayerIds = new HashMap<>();
+
+    public UserSearchService(MongoTemplate mongoTemplate, PlayerRepository playerRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.playerRepository = playerRepository;
+    }
+
+    /**
+     * Build the index from all the users and players.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            entries.clear();
+            playerUserIds.clear();
+            userPlayerIds.clear();
+            try (CloseableIterator<User> users = mongoTemplate.stream(userQuery(new Criteria()), User.class)) {
+                users.forEachRemaining(this::doIndex);
+            }
+            playerRepository.findAllUserIds().forEach(this::doIndexPlayer);
+            log.debug("Indexed {} users and {} players", entries.size(), playerUserIds.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search users.
+     *
+     * @param query       the prefixes of the words to find, all of them must match.
+     * @param limit       the maximum number of matches, at most {@link #MAX_LIMIT}.
+     * @param playersOnly whether to only return users that are players.
+     * @return the matching users, best matches first.
+     */
+    public List<UserSearchResultDTO> search(String query, int limit, boolean playersOnly) {
+        List<String> terms = queryTerms(query);
+        int max = Math.min(limit, MAX_LIMIT);
+        if (terms.isEmpty() || max <= 0) {
+            return Collections.emptyList();
+        }
+        String first = terms.stream().max(Comparator.comparingInt(String::length)).get();
+        List<UserSearchResultDTO> results = new ArrayList<>(max);
+        lock.readLock().lock();
+        try {
+            Node start = root.find(first);
+            if (start == null) {
+                return results;
+            }
+            Set<String> seen = new HashSet<>();
+            List<Match> matches = new ArrayList<>();
+            List<Node> level = Collections.singletonList(start);
+            int visited = 0;
+            while (!level.isEmpty() && matches.size() < max && visited < MAX_VISITED_NODES) {
+                List<Node> nextLevel = new ArrayList<>();
+                for (Node node : level) {
+                    if (++visited > MAX_VISITED_NODES) {
+                        break;
+                    }
+                    for (String userId : node.userIds) {
+                        Entry entry = entries.get(userId);
+                        if (seen.add(userId) && (!playersOnly || entry.playerId != null)) {
+                            Match match = entry.match(terms);
+                            if (match != null) {
+                                matches.add(match);
+                            }
+                        }
+                    }
+                    nextLevel.addAll(node.children.values());
+                }
+                level = nextLevel;
+            }
+            matches.sort(MATCH_ORDER);
+            for (int i = 0; i < matches.size() && i < max; i++) {
+                results.add(matches.get(i).entry.toResult());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a user, replacing their previous words.
+     *
+     * @param user the user.
+     */
+    public void index(User user) {
+        lock.writeLock().lock();
+        try {
+            doIndex(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reload a user written by another instance.
+     *
+     * @param userId the id of the user.
+     */
+    public void refreshUser(String userId) {
+        User user = mongoTemplate.findOne(userQuery(Criteria.where("_id").is(userId)), User.class);
+        lock.writeLock().lock();
+        try {
+            if (user != null) {
+                doIndex(user);
+            } else {
+                doRemove(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reload a player written by another instance.
+     *
+     * @param playerId the id of the player.
+     */
+    public void refreshPlayer(String playerId) {
+        String userId = playerRepository.findUserId(playerId).orElse(null);
+        lock.writeLock().lock();
+        try {
+            doIndexPlayer(playerId, userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof User) {
+            index((User) source);
+        } else if (source instanceof Player) {
+            Player player = (Player) source;
+            lock.writeLock().lock();
+            try {
+                doIndexPlayer(player.getId(), player.getUser() != null ? player.getUser().getId() : null);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        if (!User.class.equals(event.getType()) && !Player.class.equals(event.getType())) {
+            return;
+        }
+        Object id = event.getDocument() != null ? event.getDocument().get("_id") : null;
+        if (!(id instanceof String) && !(id instanceof ObjectId)) {
+            // Deletion of several documents, which are not known
+            rebuild();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (User.class.equals(event.getType())) {
+                doRemove(id.toString());
+            } else {
+                doIndexPlayer(id.toString(), null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Query userQuery(Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().include("login").include("firstName").include("lastName").include("phone");
+        return query;
+    }
+
+    private void doIndex(User user) {
+        doRemove(user.getId());
+        Entry entry = new Entry(user);
+        entry.playerId = userPlayerIds.get(entry.userId);
+        entries.put(entry.userId, entry);
+        for (String word : entry.words) {
+            root.insert(word, entry.userId);
+        }
+    }
+
+    private void doRemove(String userId) {
+        Entry entry = entries.remove(userId);
+        if (entry != null) {
+            for (String word : entry.words) {
+                root.remove(word, 0, userId);
+            }
+        }
+    }
+
+    private void doIndexPlayer(String playerId, String userId) {
+        String previousUserId = userId != null ? playerUserIds.put(playerId, userId) : playerUserIds.remove(playerId);
+        if (previousUserId != null) {
+            userPlayerIds.remove(previousUserId, playerId);
+            setPlayerId(previousUserId, userPlayerIds.get(previousUserId));
+        }
+        if (userId != null) {
+            userPlayerIds.put(userId, playerId);
+            setPlayerId(userId, playerId);
+        }
+    }
+
+    private void setPlayerId(String userId, String playerId) {
+        Entry entry = entries.get(userId);
+        if (entry != null) {
+            entry.playerId = playerId;
+        }
+    }
+
+    static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> queryTerms(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (PHONE_QUERY.matcher(query).matches()) {
+            String digits = NON_DIGITS.matcher(query).replaceAll("");
+            return digits.isEmpty() ? Collections.emptyList() : Collections.singletonList(digits);
+        }
+        List<String> terms = new ArrayList<>(Arrays.asList(SEPARATORS.split(normalize(query))));
+        terms.removeIf(String::isEmpty);
+        return terms;
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new TreeMap<>();
+
+        private final Set<String> userIds = new LinkedHashSet<>();
+
+        private Node find(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        private void insert(String word, String userId) {
+            Node node = this;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+            }
+            node.userIds.add(userId);
+        }
+
+        /**
+         * @return whether this node became empty and can be pruned.
+         */
+        private boolean remove(String word, int index, String userId) {
+            if (index == word.length()) {
+                userIds.remove(userId);
+            } else {
+                Node child = children.get(word.charAt(index));
+                if (child != null && child.remove(word, index + 1, userId)) {
+                    children.remove(word.charAt(index));
+                }
+            }
+            return userIds.isEmpty() && children.isEmpty();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String userId;
+
+        private final String login;
+
+        private final String firstName;
+
+        private final String lastName;
+
+        private final String phone;
+
+        private final String name;
+
+        private final Set<String> words = new LinkedHashSet<>();
+
+        private String playerId;
+
+        private Entry(User user) {
+            this.userId = user.getId();
+            this.login = user.getLogin();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.phone = user.getPhone();
+            this.name = normalize((lastName != null ? lastName : "") + " " + (firstName != null ? firstName : ""));
+            for (String text : Arrays.asList(firstName, lastName, login, phone)) {
+                if (text != null) {
+                    for (String word : SEPARATORS.split(normalize(text))) {
+                        if (!word.isEmpty()) {
+                            words.add(word);
+                        }
+                    }
+                }
+            }
+            for (String text : Arrays.asList(login, phone)) {
+                if (text != null) {
+                    String digits = NON_DIGITS.matcher(text).replaceAll("");
+                    if (!digits.isEmpty()) {
+                        words.add(digits);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return how the words of this user complete the terms, or {@code null} if a term completes none.
+         */
+        private Match match(List<String> terms) {
+            Match match = new Match(this);
+            for (String term : terms) {
+                int shortest = Integer.MAX_VALUE;
+                for (String word : words) {
+                    if (word.length() < shortest && word.startsWith(term)) {
+                        shortest = word.length();
+                    }
+                }
+                if (shortest == Integer.MAX_VALUE) {
+                    return null;
+                }
+                if (shortest == term.length()) {
+                    match.wholeWords++;
+                }
+                match.lettersLeft += shortest - term.length();
+            }
+            return match;
+        }
+
+        private UserSearchResultDTO toResult() {
+            return new UserSearchResultDTO(userId, playerId, login, firstName, lastName, phone);
+        }
+    }
+
+    private static final class Match {
+
+        private final Entry entry;
+
+        private int wholeWords;
+
+        private int lettersLeft;
+
+        private Match(Entry entry) {
+            this.entry = entry;
+        }
+    }
+}
@@ -5,10 +5,12 @@ import com.limonnana.skate.domain.Authority;
 import com.limonnana.skate.domain.Player;
 import com.limonnana.skate.domain.User;
 import com.limonnana.skate.repository.AuthorityRepository;
+import com.limonnana.skate.repository.MongoIds;
 import com.limonnana.skate.repository.PlayerRepository;
 import com.limonnana.skate.repository.UserRepository;
 import com.limonnana.skate.security.AuthoritiesConstants;
 import com.limonnana.skate.security.SecurityUtils;
+import com.limonnana.skate.security.jwt.TokenRevocationService;
 import com.limonnana.skate.service.dto.UserDTO;
 
 import com.limonnana.skate.web.rest.errors.PhoneAlreadyUsedException;
@@ -16,6 +18,9 @@ import io.github.jhipster.security.RandomUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -25,6 +30,7 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +39,10 @@ import java.util.stream.Collectors;
 @Service
 public class UserService {
 
+    private static final String REMOVE_NOT_ACTIVATED_USERS_LOCK = "removeNotActivatedUsers";
+
+    private static final int REMOVE_NOT_ACTIVATED_USERS_BATCH_SIZE = 100;
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -43,8 +53,21 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(PlayerRepository playerRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final LeaseLockService leaseLockService;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final Cache accountCache;
+
+    private final Cache playerCache;
+
+    public UserService(PlayerRepository playerRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository,
+                       LeaseLockService leaseLockService, TokenRevocationService tokenRevocationService, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.leaseLockService = leaseLockService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.accountCache = Objects.requireNonNull(cacheManager.getCache(UserRepository.ACCOUNTS_BY_LOGIN_CACHE));
+        this.playerCache = Objects.requireNonNull(cacheManager.getCache(PlayerRepository.PLAYERS_BY_ID_CACHE));
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.playerRepository = playerRepository;
@@ -87,20 +110,123 @@ public class UserService {
             });
     }
 
+    /**
+     * Find the user of a phone number, however it is formatted.
+     *
+     * @param phone the phone number.
+     * @return the user whose phone, or else whose login, is this number.
+     */
+    public Optional<User> findOneByPhone(String phone) {
+        return findOneByPhone(findAllByPhone(phone), phone);
+    }
+
+    private static Optional<User> findOneByPhone(List<User> users, String phone) {
+        return users.stream()
+            .min(Comparator.comparing(user -> !Objects.equals(user.getPhoneKey(), User.normalizePhone(phone))));
+    }
+
+    /**
+     * Find the user of a phone number, or else register a contributor with it, in a single query when the
+     * phone is known.
+     *
+     * @param phone       the phone number.
+     * @param contributor the user to register if no user has this phone.
+     * @return the user.
+     * @throws PhoneAlreadyUsedException if the phone was registered concurrently.
+     */
+    public User findOrRegisterByPhone(String phone, Supplier<User> contributor) {
+        Optional<User> user = findOneByPhone(findAllByPhone(phone), phone);
+        return user.isPresent() ? user.get() : saveContributor(contributor.get());
+    }
+
+    private List<User> findAllByPhone(String phone) {
+        String phoneKey = User.normalizePhone(phone);
+        if (phoneKey == null) {
+            return Collections.emptyList();
+        }
+        return userRepository.findAllByPhoneKeyOrLogin(phoneKey, phone.toLowerCase());
+    }
+
+    /**
+     * Check that a phone number, which is also the login of the players, is not held by another user.
+     * <p>
+     * The phone key migration left the users whose phone an older user held without a phone key: they
+     * keep that phone without a key, and are only checked once they change it.
+     *
+     * @param phone the new phone of the user.
+     * @param user  the user, who may keep their own phone, or {@code null} for a new user.
+     * @return the phone key of the user, {@code null} for a user keeping a phone held by another user.
+     * @throws PhoneAlreadyUsedException    if another user has this phone.
+     * @throws UsernameAlreadyUsedException if another user has this phone as login.
+     */
+    public String checkPhoneIsFree(String phone, User user) {
+        String phoneKey = User.normalizePhone(phone);
+        String userId = user != null ? user.getId() : null;
+        boolean keepsHeldPhone = user != null && user.getPhoneKey() == null && phoneKey != null
+            && phoneKey.equals(User.normalizePhone(user.getPhone()));
+        for (User existingUser : findAllByPhone(phone)) {
+            if (existingUser.getId().equals(userId)) {
+                continue;
+            }
+            if (keepsHeldPhone) {
+                return null;
+            }
+            if (Objects.equals(phoneKey, existingUser.getPhoneKey())) {
+                throw new PhoneAlreadyUsedException();
+            }
+            throw new UsernameAlreadyUsedException();
+        }
+        return phoneKey;
+    }
+
+    /**
+     * Change the phone of a user, once checked by {@link #checkPhoneIsFree(String, User)}.
+     *
+     * @param user  the user.
+     * @param phone the new phone.
+     */
+    public void changePhone(User user, String phone) {
+        String phoneKey = checkPhoneIsFree(phone, user);
+        user.setPhone(phone);
+        user.setPhoneKey(phoneKey);
+    }
+
+    /**
+     * Save a user whose phone was checked, as another user can still take it concurrently.
+     *
+     * @param user the user.
+     * @return the saved user.
+     * @throws PhoneAlreadyUsedException if another user took the phone.
+     */
+    public User saveUser(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw new PhoneAlreadyUsedException();
+        }
+    }
+
     public User registerUserFromContribution(User user){
-        userRepository.findOneByLogin(user.getLogin().toLowerCase()).ifPresent(existingUser -> {
+        freePhone(user);
+        return saveContributor(user);
+    }
+
+    /**
+     * Check that the phone of a new user is not held by an activated user, removing the others.
+     */
+    private void freePhone(User user) {
+        for (User existingUser : findAllByPhone(user.getPhone())) {
             boolean removed = removeNonActivatedUser(existingUser);
             if (!removed) {
+                if (Objects.equals(user.getPhoneKey(), existingUser.getPhoneKey())) {
+                    throw new PhoneAlreadyUsedException();
+                }
                 throw new UsernameAlreadyUsedException();
             }
-        });
-        userRepository.findOneByPhone(user.getPhone()).ifPresent(existingUser -> {
-            boolean removed = removeNonActivatedUser(existingUser);
-            if (!removed) {
-                throw new PhoneAlreadyUsedException();
-            }
-        });
+        }
+    }
 
+    private User saveContributor(User user) {
         String encryptedPassword = passwordEncoder.encode("0123456789");
         user.setLogin(user.getPhone());
         // new user gets initially a generic password and email
@@ -110,7 +236,7 @@ public class UserService {
         Set<Authority> authorities = new HashSet<>();
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         user.setAuthorities(authorities);
-        userRepository.save(user);
+        saveUser(user);
         log.debug("Created Information for User: {}", user);
         return user;
 
@@ -154,7 +280,8 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         newUser.setPhone(userDTO.getLogin());
-        userRepository.save(newUser);
+        freePhone(newUser);
+        saveUser(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -213,10 +340,11 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                String previousLogin = user.getLogin();
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
-                user.setPhone((userDTO.getPhone()));
+                changePhone(user, userDTO.getPhone());
                 user.setCountry((userDTO.getCountry()));
                 if (userDTO.getEmail() != null) {
                     user.setEmail(userDTO.getEmail().toLowerCase());
@@ -234,10 +362,12 @@ public class UserService {
                 if(userDTO.isPlayer() == true &&  user.isPlayer() == false){
                     user.setPlayer(userDTO.isPlayer());
                     Player p = new Player();
+                    p.setId(MongoIds.newId());
                     p.setUser(user);
                     playerRepository.save(p);
                 }
-                userRepository.save(user);
+                saveUser(user);
+                evictAccount(previousLogin);
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -247,6 +377,7 @@ public class UserService {
     public void deleteUser(String login) {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
+            tokenRevocationService.revokeUser(user.getLogin());
             log.debug("Deleted User: {}", user);
         });
     }
@@ -270,9 +401,9 @@ public class UserService {
                     user.setEmail(email.toLowerCase());
                 }
                 user.setLangKey(langKey);
-                user.setPhone(phone);
+                changePhone(user, phone);
                 user.setCountry(country);
-                userRepository.save(user);
+                saveUser(user);
                 log.debug("Changed Information for User: {}", user);
             });
     }
@@ -305,19 +436,75 @@ public class UserService {
         return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneByLogin);
     }
 
+    /**
+     * Get the account view of the current user.
+     * <p>
+     * The cached view is served unless the token of the user carries a newer profile version, which happens
+     * when the user was changed on another instance without cache invalidation.
+     *
+     * @param profileVersion the profile version carried by the token of the user, if any.
+     * @return the account of the current user.
+     */
+    public Optional<UserDTO> getAccount(Instant profileVersion) {
+        return SecurityUtils.getCurrentUserLogin().flatMap(login -> {
+            UserDTO account = accountCache.get(login, UserDTO.class);
+            if (account != null && (profileVersion == null
+                || (account.getLastModifiedDate() != null && !profileVersion.isAfter(account.getLastModifiedDate())))) {
+                return Optional.of(account);
+            }
+            return getAccountByLogin(login);
+        });
+    }
+
+    /**
+     * Drop the cached account view of a login. Saving a user only drops the view of their new login, so the
+     * paths changing the login drop the previous one, and the updates bypassing the repository both.
+     *
+     * @param login the login.
+     */
+    public void evictAccount(String login) {
+        if (login != null) {
+            accountCache.evict(login);
+        }
+    }
+
+    /**
+     * Read the account view of a user from the database, and cache it.
+     *
+     * @param login the login of the user.
+     * @return the account of the user.
+     */
+    public Optional<UserDTO> getAccountByLogin(String login) {
+        Optional<UserDTO> account = userRepository.findOneByLogin(login).map(UserDTO::new);
+        account.ifPresent(userDTO -> accountCache.put(login, userDTO));
+        return account;
+    }
+
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am), on a single instance.
      */
     @Scheduled(cron = "0 0 1 * * ?")
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-            });
+        leaseLockService.runExclusively(REMOVE_NOT_ACTIVATED_USERS_LOCK, LeaseLockService.SCHEDULED_JOB_LEASE_TIME, fencingToken -> {
+            Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+            List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(createdBefore);
+            for (int from = 0; from < users.size(); from += REMOVE_NOT_ACTIVATED_USERS_BATCH_SIZE) {
+                if (!leaseLockService.isHeld(REMOVE_NOT_ACTIVATED_USERS_LOCK, fencingToken)) {
+                    log.warn("Lease on {} lost, stopping", REMOVE_NOT_ACTIVATED_USERS_LOCK);
+                    return;
+                }
+                List<User> batch = users.subList(from, Math.min(from + REMOVE_NOT_ACTIVATED_USERS_BATCH_SIZE, users.size()));
+                // Users activated since they were read are kept, so a batch deleted after the lease was lost deletes
+                // nothing that the instance holding it would keep
+                long deleted = userRepository.deleteByIdInAndActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
+                    batch.stream().map(User::getId).collect(Collectors.toList()), createdBefore);
+                batch.forEach(user -> evictAccount(user.getLogin()));
+                playerCache.clear();
+                log.debug("Deleted {} not activated users", deleted);
+            }
+        });
     }
 
     /**
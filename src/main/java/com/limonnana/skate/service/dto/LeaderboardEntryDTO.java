@@ -0,0 +1,82 @@
+package com.limonnana.skate.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a contributor of a leaderboard, with the total of his contributions.
+ */
+public class LeaderboardEntryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+
+    private String login;
+
+    private String firstName;
+
+    private String lastName;
+
+    private long shekel;
+
+    private long contributions;
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public long getShekel() {
+        return shekel;
+    }
+
+    public void setShekel(long shekel) {
+        this.shekel = shekel;
+    }
+
+    public long getContributions() {
+        return contributions;
+    }
+
+    public void setContributions(long contributions) {
+        this.contributions = contributions;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LeaderboardEntryDTO{" +
+            "userId='" + userId + '\'' +
+            ", login='" + login + '\'' +
+            ", shekel=" + shekel +
+            ", contributions=" + contributions +
+            "}";
+    }
+}
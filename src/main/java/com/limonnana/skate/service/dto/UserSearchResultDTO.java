@@ -0,0 +1,97 @@
+package com.limonnana.skate.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a user matching a search, with the id of his player if he is one.
+ */
+public class UserSearchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+
+    private String playerId;
+
+    private String login;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String phone;
+
+    public UserSearchResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserSearchResultDTO(String userId, String playerId, String login, String firstName, String lastName, String phone) {
+        this.userId = userId;
+        this.playerId = playerId;
+        this.login = login;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.phone = phone;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(String playerId) {
+        this.playerId = playerId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserSearchResultDTO{" +
+            "userId='" + userId + '\'' +
+            ", playerId='" + playerId + '\'' +
+            ", login='" + login + '\'' +
+            ", firstName='" + firstName + '\'' +
+            ", lastName='" + lastName + '\'' +
+            ", phone='" + phone + '\'' +
+            "}";
+    }
+}
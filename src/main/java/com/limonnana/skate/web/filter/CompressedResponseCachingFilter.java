@@ -0,0 +1,186 @@
+package com.limonnana.skate.web.filter;
+
+import com.limonnana.skate.config.ApplicationProperties;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips the responses of {@link ApplicationProperties.Compression#getPaths()} once per content, instead of once per request.
+ * <p>
+ * The body is tagged with a weak {@code ETag} hashed from its media type and uncompressed bytes, which also answers
+ * {@code If-None-Match} with {@code 304 (Not Modified)}. The gzipped copy is cached under that tag, so
+ * hashing is all that is left to do until the content changes, and each negotiated format of a resource
+ * gets its own tag and copy. Responses already carrying a {@code Content-Encoding} are left alone by the
+ * server compression.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CompressedResponseCachingFilter extends OncePerRequestFilter {
+
+    static final String GZIP = "gzip";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<String> paths;
+
+    private final List<MediaType> mimeTypes;
+
+    private final long minResponseSize;
+
+    private final Cache<String, byte[]> compressedBodies;
+
+    public CompressedResponseCachingFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Compression compression = applicationProperties.getCompression();
+        this.paths = compression.getPaths();
+        this.mimeTypes = MediaType.parseMediaTypes(compression.getMimeTypes());
+        this.minResponseSize = compression.getMinResponseSize().toBytes();
+        this.compressedBodies = Caffeine.newBuilder()
+            .maximumWeight(compression.getCacheSize().toBytes())
+            .weigher((String key, byte[] body) -> body.length)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compressedBodies, "compressedResponses");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    /**
+     * The reactive controllers complete on an async dispatch, which is where the body gets compressed.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        ContentCachingResponseWrapper responseToUse = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (responseToUse == null) {
+            responseToUse = new ContentCachingResponseWrapper(response);
+        }
+        filterChain.doFilter(request, responseToUse);
+        if (!isAsyncStarted(request)) {
+            writeResponse(request, responseToUse);
+        }
+    }
+
+    private void writeResponse(HttpServletRequest request, ContentCachingResponseWrapper response) throws IOException {
+        if (!isCompressible(response)) {
+            response.copyBodyToResponse();
+            return;
+        }
+        String etag = "W/\"0" + DigestUtils.md5DigestAsHex(new SequenceInputStream(
+            new ByteArrayInputStream((response.getContentType() + "\n").getBytes(StandardCharsets.UTF_8)),
+            response.getContentInputStream())) + "\"";
+        HttpServletResponse rawResponse = (HttpServletResponse) response.getResponse();
+        rawResponse.setHeader(HttpHeaders.ETAG, etag);
+        rawResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            rawResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (!acceptsGzip(request)) {
+            response.copyBodyToResponse();
+            return;
+        }
+        byte[] body = compressedBodies.get(etag, key -> gzip(response.getContentAsByteArray()));
+        rawResponse.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        rawResponse.setContentLength(body.length);
+        rawResponse.getOutputStream().write(body);
+    }
+
+    private boolean isCompressible(ContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.getContentSize() < minResponseSize
+            || response.getHeader(HttpHeaders.CONTENT_ENCODING) != null || response.getContentType() == null) {
+            return false;
+        }
+        MediaType contentType = MediaType.parseMediaType(response.getContentType());
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(contentType));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if ((name.equalsIgnoreCase(GZIP) || name.equals("*")) && quality(parts) > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
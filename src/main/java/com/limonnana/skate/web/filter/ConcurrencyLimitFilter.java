@@ -0,0 +1,191 @@
+package com.limonnana.skate.web.filter;
+
+import com.limonnana.skate.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds the requests to the paths of {@link ApplicationProperties.Throttling.Concurrency} with
+ * {@code 503 (Service Unavailable)} once too many of them are in flight.
+ * <p>
+ * Each path has its own limit, so that a slow path does not shed the requests of the others. The limit adapts
+ * to the latency: each response slower than {@code max-latency} lowers it by a tenth, down to {@code min-limit},
+ * and each faster one raises it back by {@code 1 / limit}, up to {@code max-limit}.
+ * Reactive requests are only counted out when their async processing completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(prefix = "application.throttling.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * The limiter of each configured path pattern, in configuration order.
+     */
+    private final Map<String, Limiter> limiters = new LinkedHashMap<>();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long maxLatencyNanos;
+
+    private final LongSupplier nanoTime;
+
+    public ConcurrencyLimitFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, System::nanoTime);
+    }
+
+    ConcurrencyLimitFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        ApplicationProperties.Throttling.Concurrency concurrency = applicationProperties.getThrottling().getConcurrency();
+        this.minLimit = concurrency.getMinLimit();
+        this.maxLimit = concurrency.getMaxLimit();
+        this.maxLatencyNanos = concurrency.getMaxLatency().toNanos();
+        this.nanoTime = nanoTime;
+        double initialLimit = Math.max(minLimit, Math.min(maxLimit, concurrency.getInitialLimit()));
+        for (String path : concurrency.getPaths()) {
+            limiters.put(path, new Limiter(path, initialLimit, meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limiter(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Limiter limiter = limiter(request);
+        if (limiter.inFlight.incrementAndGet() > (int) limiter.limit) {
+            limiter.inFlight.decrementAndGet();
+            log.debug("Shedding {} over a limit of {} requests in flight", request.getRequestURI(), (int) limiter.limit);
+            limiter.shed.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        long start = nanoTime.getAsLong();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (isAsyncStarted(request)) {
+                request.getAsyncContext().addListener(new CompletionListener(limiter, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.complete(start);
+            }
+        }
+    }
+
+    double getLimit(String path) {
+        return limiters.get(path).limit;
+    }
+
+    private Limiter limiter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Limiter> limiter : limiters.entrySet()) {
+            if (pathMatcher.match(limiter.getKey(), path)) {
+                return limiter.getValue();
+            }
+        }
+        return null;
+    }
+
+    private final class Limiter {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final Counter shed;
+
+        private volatile double limit;
+
+        private Limiter(String path, double initialLimit, MeterRegistry meterRegistry) {
+            this.limit = initialLimit;
+            this.shed = Counter.builder("http.server.requests.throttled")
+                .description("The number of requests refused to protect the public endpoints")
+                .tags("uri", path, "reason", "concurrency")
+                .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.limit", this, limiter -> limiter.limit)
+                .description("The number of requests to the public endpoints allowed in flight")
+                .tags("uri", path)
+                .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("The number of requests to the public endpoints in flight")
+                .tags("uri", path)
+                .register(meterRegistry);
+        }
+
+        private void complete(long start) {
+            long latency = nanoTime.getAsLong() - start;
+            inFlight.decrementAndGet();
+            synchronized (this) {
+                if (latency > maxLatencyNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                } else {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+        }
+    }
+
+    private static final class CompletionListener implements AsyncListener {
+
+        private final Limiter limiter;
+
+        private final long start;
+
+        private CompletionListener(Limiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.complete(start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.limonnana.skate.web.filter;
+
+import com.limonnana.skate.config.ApplicationProperties;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Limits the requests of each client IP to the routes of {@link ApplicationProperties.Throttling.RateLimit}
+ * with a token bucket per client and route, answering {@code 429 (Too Many Requests)} once it is empty.
+ * <p>
+ * Buckets are only kept for recently seen clients, a full bucket being what a new one starts with anyway.
+ * Behind a proxy the client IP is taken from its {@code X-Forwarded-For} header by the {@code ForwardedHeaderFilter}
+ * of {@code server.forward-headers-strategy: framework}, which runs first.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "application.throttling.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<LimitedRoute> routes;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongSupplier nanoTime;
+
+    public RateLimitFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        ApplicationProperties.Throttling.RateLimit rateLimit = applicationProperties.getThrottling().getRateLimit();
+        this.routes = rateLimit.getRoutes().stream()
+            .map(route -> new LimitedRoute(route, Counter.builder("http.server.requests.throttled")
+                .description("The number of requests refused to protect the public endpoints")
+                .tags("uri", route.getPath(), "reason", "rate-limit")
+                .register(meterRegistry)))
+            .collect(Collectors.toList());
+        Duration idleTime = rateLimit.getRoutes().stream()
+            .map(ApplicationProperties.Throttling.RateLimit.Route::getRefillPeriod)
+            .max(Duration::compareTo)
+            .orElse(Duration.ZERO);
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(rateLimit.getMaxClients())
+            .expireAfterAccess(idleTime.toNanos(), TimeUnit.NANOSECONDS)
+            .build();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        LimitedRoute route = route(request);
+        if (route != null) {
+            String client = request.getRemoteAddr();
+            TokenBucket bucket = buckets.get(route.path + ' ' + client, key -> new TokenBucket(route, nanoTime.getAsLong()));
+            long waitNanos = bucket.tryConsume(nanoTime.getAsLong());
+            if (waitNanos > 0) {
+                log.debug("Rate limit of {} exceeded by {}", route.path, client);
+                route.throttled.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private LimitedRoute route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (LimitedRoute route : routes) {
+            if (pathMatcher.match(route.path, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static final class LimitedRoute {
+
+        private final String path;
+
+        private final int capacity;
+
+        private final double nanosPerToken;
+
+        private final Counter throttled;
+
+        private LimitedRoute(ApplicationProperties.Throttling.RateLimit.Route route, Counter throttled) {
+            this.path = route.getPath();
+            this.capacity = route.getCapacity();
+            this.nanosPerToken = (double) route.getRefillPeriod().toNanos() / route.getCapacity();
+            this.throttled = throttled;
+        }
+    }
+
+    /**
+     * Holds up to {@code capacity} tokens, refilled evenly over the refill period of the route.
+     */
+    private static final class TokenBucket {
+
+        private final LimitedRoute route;
+
+        private double tokens;
+
+        private long refilledAt;
+
+        private TokenBucket(LimitedRoute route, long now) {
+            this.route = route;
+            this.tokens = route.capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, or else the nanoseconds until the next one.
+         */
+        synchronized long tryConsume(long now) {
+            tokens = Math.min(route.capacity, tokens + (now - refilledAt) / route.nanosPerToken);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * route.nanosPerToken);
+        }
+    }
+}
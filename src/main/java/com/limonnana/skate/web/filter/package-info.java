@@ -0,0 +1,4 @@
+/**
+ * Servlet filters.
+ */
+package com.limonnana.skate.web.filter;
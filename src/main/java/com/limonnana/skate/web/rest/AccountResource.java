@@ -4,6 +4,7 @@ package com.limonnana.skate.web.rest;
 import com.limonnana.skate.domain.User;
 import com.limonnana.skate.repository.UserRepository;
 import com.limonnana.skate.security.SecurityUtils;
+import com.limonnana.skate.security.jwt.TokenProvider;
 import com.limonnana.skate.service.MailService;
 import com.limonnana.skate.service.UserService;
 import com.limonnana.skate.service.dto.PasswordChangeDTO;
@@ -18,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.time.Instant;
 import java.util.*;
 
 /**
@@ -41,11 +43,14 @@ public class AccountResource {
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final TokenProvider tokenProvider;
+
+    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService, TokenProvider tokenProvider) {
 
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
+        this.tokenProvider = tokenProvider;
 
     }
 
@@ -96,14 +101,18 @@ public class AccountResource {
 
     /**
      * {@code GET  /account} : get the current user.
+     * <p>
+     * Served from the account view cache while it is as recent as the profile version carried by the token.
      *
      * @return the current user.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
     public UserDTO getAccount() {
-        return userService.getUserWithAuthorities()
-            .map(UserDTO::new)
+        Instant profileVersion = SecurityUtils.getCurrentUserJWT()
+            .flatMap(tokenProvider::getProfileVersion)
+            .orElse(null);
+        return userService.getAccount(profileVersion)
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
     }
 
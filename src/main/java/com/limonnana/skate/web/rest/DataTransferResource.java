@@ -0,0 +1,93 @@
+package com.limonnana.skate.web.rest;
+
+import com.limonnana.skate.service.DataTransferService;
+import com.limonnana.skate.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for exporting and importing the event data as NDJSON.
+ */
+@RestController
+@RequestMapping("/management")
+public class DataTransferResource {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final String ENTITY_NAME = "dataTransfer";
+
+    private final Logger log = LoggerFactory.getLogger(DataTransferResource.class);
+
+    private final DataTransferService dataTransferService;
+
+    public DataTransferResource(DataTransferService dataTransferService) {
+        this.dataTransferService = dataTransferService;
+    }
+
+    /**
+     * {@code GET  /export} : stream the documents of some collections, one per line.
+     *
+     * @param collections the collections to export, all the event data if absent.
+     * @param response    the response the documents are written to.
+     * @throws IOException if the response cannot be written.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a collection cannot be exported.
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(required = false) List<String> collections, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export collections : {}", collections);
+        List<String> requested = collections != null ? collections : Collections.emptyList();
+        for (String collection : requested) {
+            if (!dataTransferService.getCollectionNames().contains(collection)) {
+                throw new BadRequestAlertException("Collection " + collection + " cannot be exported", ENTITY_NAME, "collectioninvalid");
+            }
+        }
+        response.setContentType(NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"export.ndjson\"");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        long count = dataTransferService.export(requested, writer);
+        log.debug("Exported {} documents", count);
+    }
+
+    /**
+     * {@code POST  /import} : insert the documents of an export, skipping the ids that already exist.
+     *
+     * @param request the request whose body holds the documents, one per line.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of documents inserted per collection in body.
+     * @throws IOException if the request cannot be read.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a line is not a document of an importable collection,
+     * after importing the lines before it, or if documents collide with existing ones on a unique index other than the id,
+     * after importing the others.
+     */
+    @PostMapping(value = "/import", consumes = NDJSON_VALUE)
+    public ResponseEntity<Map<String, Integer>> importDocuments(HttpServletRequest request) throws IOException {
+        log.debug("REST request to import documents");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        try {
+            return ResponseEntity.ok(dataTransferService.importDocuments(reader));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.limonnana.skate.web.rest;
 
+import com.limonnana.skate.config.Constants;
+import com.limonnana.skate.config.ReplicaReads;
 import com.limonnana.skate.domain.*;
 import com.limonnana.skate.repository.EventRepository;
+import com.limonnana.skate.repository.MongoIds;
 import com.limonnana.skate.repository.PhotoRepository;
 import com.limonnana.skate.repository.PlayerRepository;
 import com.limonnana.skate.repository.TrickRepository;
+import com.limonnana.skate.service.LeaderboardService;
+import com.limonnana.skate.service.MergePatchService;
 import com.limonnana.skate.web.rest.errors.BadRequestAlertException;
 
 import io.github.jhipster.web.util.HeaderUtil;
@@ -12,6 +17,7 @@ import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,8 +25,12 @@ import javax.validation.Valid;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,6 +38,7 @@ import java.util.Set;
  * REST controller for managing {@link com.limonnana.skate.domain.Event}.
  */
 @RestController
+@ReplicaReads
 @RequestMapping("/api")
 public class EventResource {
 
@@ -35,6 +46,10 @@ public class EventResource {
 
     private static final String ENTITY_NAME = "event";
 
+    private static final Set<String> PATCHABLE_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("day", "dayString", "name", "spot", "active")));
+
+    private static final Set<String> REQUIRED_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("name", "active")));
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,10 +57,15 @@ public class EventResource {
     private final TrickRepository trickRepository;
     private final PlayerRepository playerRepository;
     private final PhotoRepository photoRepository;
+    private final MergePatchService mergePatchService;
+    private final LeaderboardService leaderboardService;
 
-    public EventResource(EventRepository eventRepository, TrickRepository trickRepository, PlayerRepository playerRepository, PhotoRepository photoRepository) {
+    public EventResource(EventRepository eventRepository, TrickRepository trickRepository, PlayerRepository playerRepository, PhotoRepository photoRepository,
+                         MergePatchService mergePatchService, LeaderboardService leaderboardService) {
 
         this.eventRepository = eventRepository;
+        this.mergePatchService = mergePatchService;
+        this.leaderboardService = leaderboardService;
         this.trickRepository = trickRepository;
         this.playerRepository = playerRepository;
         this.photoRepository = photoRepository;
@@ -65,6 +85,7 @@ public class EventResource {
         if (event.getId() != null) {
             throw new BadRequestAlertException("A new event cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        event.setId(MongoIds.newId());
         Event result = eventRepository.save(event);
         return ResponseEntity.created(new URI("/api/events/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
@@ -98,6 +119,22 @@ public class EventResource {
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /events/:id} : Partially updates an existing event with a JSON Merge Patch.
+     *
+     * @param id the id of the event to patch.
+     * @param patch the merge patch, keyed by property name.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched event,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the event doesn't exist.
+     */
+    @PatchMapping(value = "/events/{id}", consumes = { Constants.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Event> patchEvent(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        log.debug("REST request to patch Event : {}, {}", id, patch);
+        Optional<Event> result = mergePatchService.patch(Event.class, ENTITY_NAME, id, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     @GetMapping("/events/active")
     public ResponseEntity<Event> getActive() throws Exception {
         log.debug("REST request to get Active Event : {}");
@@ -163,9 +200,64 @@ public class EventResource {
         Trick trick = trickRepository.findById(addTrick.getIdTrick()).get();
         event.addTrick(trick);
         Event result = eventRepository.save(event);
+        leaderboardService.evictEvent(result.getId());
 
         return ResponseUtil.wrapOrNotFound(Optional.of(result));
     }
+    /**
+     * {@code PUT  /events/addPlayers} : Add several players to an event in a single update.
+     *
+     * @param eventPlayers the event id and the ids of the players to add.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated event, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/events/addPlayers")
+    public ResponseEntity<Event> addPlayers(@Valid @RequestBody EventPlayers eventPlayers) {
+        log.debug("REST request to add Players to Event : {}", eventPlayers);
+        boolean updated = eventRepository.addPlayers(eventPlayers.getIdEvent(), eventPlayers.getIdPlayers());
+        return updatedEvent(updated, eventPlayers.getIdEvent());
+    }
+
+    /**
+     * {@code PUT  /events/removePlayers} : Remove several players from an event in a single update.
+     *
+     * @param eventPlayers the event id and the ids of the players to remove.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated event, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/events/removePlayers")
+    public ResponseEntity<Event> removePlayers(@Valid @RequestBody EventPlayers eventPlayers) {
+        log.debug("REST request to remove Players from Event : {}", eventPlayers);
+        boolean updated = eventRepository.removePlayers(eventPlayers.getIdEvent(), eventPlayers.getIdPlayers());
+        return updatedEvent(updated, eventPlayers.getIdEvent());
+    }
+
+    /**
+     * {@code PUT  /events/addTricks} : Add several tricks to an event in a single update.
+     *
+     * @param eventTricks the event id and the ids of the tricks to add.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated event, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/events/addTricks")
+    public ResponseEntity<Event> addTricks(@Valid @RequestBody EventTricks eventTricks) {
+        log.debug("REST request to add Tricks to Event : {}", eventTricks);
+        boolean updated = eventRepository.addTricks(eventTricks.getIdEvent(), eventTricks.getIdTricks());
+        leaderboardService.evictEvent(eventTricks.getIdEvent());
+        return updatedEvent(updated, eventTricks.getIdEvent());
+    }
+
+    /**
+     * {@code PUT  /events/removeTricks} : Remove several tricks from an event in a single update.
+     *
+     * @param eventTricks the event id and the ids of the tricks to remove.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated event, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/events/removeTricks")
+    public ResponseEntity<Event> removeTricks(@Valid @RequestBody EventTricks eventTricks) {
+        log.debug("REST request to remove Tricks from Event : {}", eventTricks);
+        boolean updated = eventRepository.removeTricks(eventTricks.getIdEvent(), eventTricks.getIdTricks());
+        leaderboardService.evictEvent(eventTricks.getIdEvent());
+        return updatedEvent(updated, eventTricks.getIdEvent());
+    }
+
     /**
      * {@code GET  /events} : get all the events.
      *
@@ -201,9 +293,17 @@ public class EventResource {
     public ResponseEntity<Void> deleteEvent(@PathVariable String id) {
         log.debug("REST request to delete Event : {}", id);
         eventRepository.deleteById(id);
+        leaderboardService.evictEvent(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id)).build();
     }
 
+    private ResponseEntity<Event> updatedEvent(boolean updated, String idEvent) {
+        if (!updated) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseUtil.wrapOrNotFound(eventRepository.findById(idEvent));
+    }
+
     private void removeObjectFromSet(Set<Photo> s, String photoId){
         Iterator<Photo> iterator = s.iterator();
         while(iterator.hasNext())
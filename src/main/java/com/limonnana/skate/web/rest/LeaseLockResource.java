@@ -0,0 +1,37 @@
+package com.limonnana.skate.web.rest;
+
+import com.limonnana.skate.domain.LeaseLock;
+import com.limonnana.skate.service.LeaseLockService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for getting the {@link LeaseLock}s held by the application instances.
+ */
+@RestController
+@RequestMapping("/management/locks")
+public class LeaseLockResource {
+
+    private final LeaseLockService leaseLockService;
+
+    public LeaseLockResource(LeaseLockService leaseLockService) {
+        this.leaseLockService = leaseLockService;
+    }
+
+    /**
+     * {@code GET /locks} : get all the locks, expired ones included.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of locks in body.
+     */
+    @GetMapping
+    public ResponseEntity<List<LeaseLock>> getAll() {
+        return ResponseEntity.ok()
+            .header("X-Lock-Owner", leaseLockService.getOwner())
+            .body(leaseLockService.findAll());
+    }
+}
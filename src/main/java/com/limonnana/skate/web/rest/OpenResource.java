@@ -1,73 +1,103 @@
 package com.limonnana.skate.web.rest;
 
+import com.limonnana.skate.config.ReplicaReads;
 import com.limonnana.skate.domain.Event;
 import com.limonnana.skate.domain.Player;
 import com.limonnana.skate.domain.Trick;
-import com.limonnana.skate.repository.EventRepository;
-import com.limonnana.skate.repository.PlayerRepository;
-import com.limonnana.skate.repository.TrickRepository;
-import io.github.jhipster.web.util.ResponseUtil;
+import com.limonnana.skate.repository.ReactiveReadRepository;
+import com.limonnana.skate.service.LeaderboardService;
+import com.limonnana.skate.service.dto.LeaderboardEntryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 
 @RestController
+@ReplicaReads
 @RequestMapping("/api")
 public class OpenResource {
 
-    private final EventRepository eventRepository;
-    private  final PlayerRepository playerRepository;
-    private final TrickRepository trickRepository;
+    private final ReactiveReadRepository reactiveReadRepository;
+    private final LeaderboardService leaderboardService;
     private final Logger log = LoggerFactory.getLogger(OpenResource.class);
 
 
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    public OpenResource(EventRepository eventRepository, PlayerRepository playerRepository, TrickRepository trickRepository){
-        this.eventRepository = eventRepository;
-        this.playerRepository = playerRepository;
-        this.trickRepository = trickRepository;
+    public OpenResource(ReactiveReadRepository reactiveReadRepository, LeaderboardService leaderboardService){
+        this.reactiveReadRepository = reactiveReadRepository;
+        this.leaderboardService = leaderboardService;
     }
 
+    /**
+     * {@code GET  /event/active} : get the active event.
+     * <p>
+     * Served without blocking a request thread, see {@link ReactiveReadRepository}.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the active event, or with status {@code 404 (Not Found)}.
+     */
     @GetMapping("/event/active")
-    public ResponseEntity<Event> getActive() throws Exception {
-        log.debug("REST request to get Active Event : {}");
-        List<Event> events = eventRepository.findAll();
-        Event result = null;
-        if(events == null){
-            throw new Exception();
-        }
-        for(Event e : events){
-            if(e.isActive()){
-                result = e;
-                break;
-            }
-        }
-        return ResponseUtil.wrapOrNotFound(Optional.of(result));
+    public Mono<ResponseEntity<Event>> getActive() {
+        log.debug("REST request to get Active Event");
+        return wrapOrNotFound(reactiveReadRepository.findActiveEvent());
     }
 
+    /**
+     * {@code GET  /player/:id} : get the "id" player.
+     *
+     * @param id the id of the player to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the player, or with status {@code 404 (Not Found)}.
+     */
     @GetMapping("/player/{id}")
-    public ResponseEntity<Player> getPlayer(@PathVariable String id) throws Exception {
+    public Mono<ResponseEntity<Player>> getPlayer(@PathVariable String id) {
         log.debug("REST request to get Player : {}", id);
-        Optional<Player> player = playerRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(player);
+        return wrapOrNotFound(reactiveReadRepository.findPlayerById(id));
     }
 
+    /**
+     * {@code GET  /trick/:id} : get the "id" trick.
+     *
+     * @param id the id of the trick to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the trick, or with status {@code 404 (Not Found)}.
+     */
     @GetMapping("/trick/{id}")
-    public ResponseEntity<Trick> getTrick(@PathVariable String id) throws Exception {
+    public Mono<ResponseEntity<Trick>> getTrick(@PathVariable String id) {
         log.debug("REST request to get Trick : {}", id);
-        Optional<Trick> trick = trickRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(trick);
+        return wrapOrNotFound(reactiveReadRepository.findTrickById(id));
     }
 
+    /**
+     * {@code GET  /trick/:id/leaderboard} : get the top contributors of the "id" trick.
+     *
+     * @param id the id of the trick.
+     * @param size the number of contributors to return, at most {@link LeaderboardService#MAX_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the contributors by decreasing amount in body.
+     */
+    @GetMapping("/trick/{id}/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTrickLeaderboard(@PathVariable String id, @RequestParam(defaultValue = "10") int size) {
+        log.debug("REST request to get leaderboard of Trick : {}", id);
+        return ResponseEntity.ok().body(top(leaderboardService.getTrickLeaderboard(id), size));
+    }
 
+    /**
+     * {@code GET  /event/:id/leaderboard} : get the top contributors over all the tricks of the "id" event.
+     *
+     * @param id the id of the event.
+     * @param size the number of contributors to return, at most {@link LeaderboardService#MAX_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the contributors by decreasing amount in body.
+     */
+    @GetMapping("/event/{id}/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getEventLeaderboard(@PathVariable String id, @RequestParam(defaultValue = "10") int size) {
+        log.debug("REST request to get leaderboard of Event : {}", id);
+        return ResponseEntity.ok().body(top(leaderboardService.getEventLeaderboard(id), size));
+    }
 
     @GetMapping("/hola")
     public ResponseEntity<String> getAllFans() {
@@ -75,5 +105,15 @@ public class OpenResource {
         return ResponseEntity.ok().body("Hola ");
     }
 
+    private static List<LeaderboardEntryDTO> top(List<LeaderboardEntryDTO> leaderboard, int size) {
+        return new ArrayList<>(leaderboard.subList(0, Math.max(0, Math.min(size, leaderboard.size()))));
+    }
+
+    private static <X> Mono<ResponseEntity<X>> wrapOrNotFound(Mono<X> maybeResponse) {
+        return maybeResponse
+            .map(response -> ResponseEntity.ok().body(response))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
 
 }
@@ -1,33 +1,51 @@
 package com.limonnana.skate.web.rest;
 
+import com.limonnana.skate.config.Constants;
+import com.limonnana.skate.config.ReplicaReads;
 import com.limonnana.skate.domain.Player;
 import com.limonnana.skate.domain.User;
+import com.limonnana.skate.repository.MongoIds;
 import com.limonnana.skate.repository.PlayerRepository;
 import com.limonnana.skate.repository.UserRepository;
+import com.limonnana.skate.service.InvalidPatchException;
+import com.limonnana.skate.service.MergePatchService;
+import com.limonnana.skate.service.UserSearchService;
 import com.limonnana.skate.service.UserService;
 import com.limonnana.skate.service.dto.UserDTO;
+import com.limonnana.skate.service.dto.UserSearchResultDTO;
 import com.limonnana.skate.web.rest.errors.BadRequestAlertException;
-
-import com.limonnana.skate.web.rest.errors.LoginAlreadyUsedException;
 import com.limonnana.skate.web.rest.errors.PhoneAlreadyUsedException;
+
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.limonnana.skate.domain.Player}.
  */
 @RestController
+@ReplicaReads
 @RequestMapping("/api")
 public class PlayerResource {
 
@@ -35,17 +53,29 @@ public class PlayerResource {
 
     private static final String ENTITY_NAME = "player";
 
+    private static final Set<String> PATCHABLE_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("firstName", "lastName", "phone", "country")));
+
+    private static final Set<String> REQUIRED_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("phone")));
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PlayerRepository playerRepository;
     private final UserService userService;
     private final UserRepository userRepository;
+    private final MergePatchService mergePatchService;
+    private final UserSearchService userSearchService;
+
+    private final CacheManager cacheManager;
 
 
 
-    public PlayerResource(PlayerRepository playerRepository, UserService userService, UserRepository userRepository) {
+    public PlayerResource(PlayerRepository playerRepository, UserService userService, UserRepository userRepository,
+                          MergePatchService mergePatchService, UserSearchService userSearchService, CacheManager cacheManager) {
         this.playerRepository = playerRepository;
+        this.userSearchService = userSearchService;
+        this.cacheManager = cacheManager;
+        this.mergePatchService = mergePatchService;
         this.userService = userService;
         this.userRepository = userRepository;
     }
@@ -72,15 +102,10 @@ public class PlayerResource {
         user.setLogin(userDTO.getPhone());
         user.setCountry(userDTO.getCountry());
 
-        if (userRepository.findOneByLogin(user.getLogin().toLowerCase()).isPresent()) {
-            throw new LoginAlreadyUsedException();
-
-        } else if (userRepository.findOneByLogin(user.getPhone()).isPresent()){
-            throw new PhoneAlreadyUsedException();
-        }
-
+        // Checks the phone is not used, in a single query
         user = userService.registerUserFromContribution(user);
         Player p = new Player();
+        p.setId(MongoIds.newId());
         p.setUser(user);
         Player result = playerRepository.save(p);
         return ResponseEntity.created(new URI("/api/players/" + result.getId()))
@@ -103,15 +128,17 @@ public class PlayerResource {
         if (userDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Player player = playerRepository.findById(userDTO.getId()).get();
+        Player player = playerRepository.findOneById(userDTO.getId()).get();
         User user = player.getUser();
+        String previousLogin = user.getLogin();
         user.setFirstName(userDTO.getFirstName());
         user.setLastName(userDTO.getLastName());
-        user.setPhone(userDTO.getPhone());
+        userService.changePhone(user, userDTO.getPhone());
         user.setActivated(true);
         user.setLogin(userDTO.getPhone());
         user.setCountry(userDTO.getCountry());
-        userRepository.save(user);
+        userService.saveUser(user);
+        userService.evictAccount(previousLogin);
         player.setUser(user);
         Player result = playerRepository.save(player);
         return ResponseEntity.ok()
@@ -119,6 +146,57 @@ public class PlayerResource {
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /players/:id} : Partially updates the user of an existing player with a JSON Merge Patch.
+     * <p>
+     * As in {@link #updatePlayer(UserDTO)}, the login of the user follows its phone, which must not be used by another user.
+     *
+     * @param id the id of the player to patch.
+     * @param patch the merge patch of the user, keyed by property name.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched player,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the player doesn't exist.
+     */
+    @PatchMapping(value = "/players/{id}", consumes = { Constants.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Player> patchPlayer(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        log.debug("REST request to patch Player : {}, {}", id, patch);
+        Optional<User> user = playerRepository.findUserId(id).flatMap(userRepository::findById);
+        if (!user.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        Update update = mergePatchService.toUpdate(User.class, ENTITY_NAME, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        if (patch.get("phone") != null) {
+            String phone = patch.get("phone").toString();
+            // Validated as the phone and the login would be on save, which the update bypasses
+            if (phone.length() < 9 || phone.length() > 13 || !phone.matches(Constants.LOGIN_REGEX)) {
+                throw new InvalidPatchException(ENTITY_NAME, "phone");
+            }
+            update.set("login", phone.toLowerCase(Locale.ENGLISH));
+            String phoneKey = userService.checkPhoneIsFree(phone, user.get());
+            // Null values are indexed, unlike missing ones
+            if (phoneKey != null) {
+                update.set("phoneKey", phoneKey);
+            } else {
+                update.unset("phoneKey");
+            }
+        }
+        Optional<User> patched;
+        try {
+            patched = mergePatchService.apply(User.class, user.get().getId(), update);
+        } catch (DuplicateKeyException e) {
+            throw new PhoneAlreadyUsedException();
+        }
+        // The update bypasses the repository and its evictions
+        userService.evictAccount(user.get().getLogin());
+        patched.ifPresent(patchedUser -> {
+            userService.evictAccount(patchedUser.getLogin());
+            userSearchService.index(patchedUser);
+        });
+        Objects.requireNonNull(cacheManager.getCache(PlayerRepository.PLAYERS_BY_ID_CACHE)).evict(id);
+        return ResponseUtil.wrapOrNotFound(playerRepository.findById(id),
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     /**
      * {@code GET  /players} : get all the players.
      *
@@ -130,6 +208,19 @@ public class PlayerResource {
         return playerRepository.findAll();
     }
 
+    /**
+     * {@code GET  /players/search?query=:query} : search the players by prefixes of their names and phone.
+     *
+     * @param query the prefixes of the words to find, all of them must match.
+     * @param limit the maximum number of players to return, at most {@value UserSearchService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching players in body, best matches first.
+     */
+    @GetMapping("/players/search")
+    public List<UserSearchResultDTO> searchPlayers(@RequestParam String query, @RequestParam(defaultValue = "10") int limit) {
+        log.debug("REST request to search Players : {}", query);
+        return userSearchService.search(query, limit, true);
+    }
+
     /**
      * {@code GET  /players/:id} : get the "id" player.
      *
@@ -1,10 +1,13 @@
 package com.limonnana.skate.web.rest;
 
-import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.config.Constants;
+import com.limonnana.skate.config.ReplicaReads;
 import com.limonnana.skate.domain.Photo;
 import com.limonnana.skate.domain.Spot;
+import com.limonnana.skate.repository.MongoIds;
 import com.limonnana.skate.repository.PhotoRepository;
 import com.limonnana.skate.repository.SpotRepository;
+import com.limonnana.skate.service.MergePatchService;
 import com.limonnana.skate.web.rest.errors.BadRequestAlertException;
 
 import io.github.jhipster.web.util.HeaderUtil;
@@ -12,6 +15,8 @@ import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -20,8 +25,13 @@ import javax.validation.Valid;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,6 +39,7 @@ import java.util.Set;
  * REST controller for managing {@link com.limonnana.skate.domain.Spot}.
  */
 @RestController
+@ReplicaReads
 @RequestMapping("/api")
 public class SpotResource {
 
@@ -36,17 +47,28 @@ public class SpotResource {
 
     private static final String ENTITY_NAME = "spot";
 
+    private static final Set<String> PATCHABLE_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("name", "description")));
+
+    private static final Set<String> REQUIRED_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("name")));
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final SpotRepository spotRepository;
     private final PhotoRepository photoRepository;
+    private final MergePatchService mergePatchService;
+
+    private final CacheManager cacheManager;
 
     public SpotResource(
         SpotRepository spotRepository,
-        PhotoRepository photoRepository
+        PhotoRepository photoRepository,
+        MergePatchService mergePatchService,
+        CacheManager cacheManager
     ) {
         this.spotRepository = spotRepository;
+        this.cacheManager = cacheManager;
+        this.mergePatchService = mergePatchService;
         this.photoRepository = photoRepository;
     }
 
@@ -63,6 +85,7 @@ public class SpotResource {
         if (spot.getId() != null) {
             throw new BadRequestAlertException("A new spot cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        spot.setId(MongoIds.newId());
         Spot result = spotRepository.save(spot);
         return ResponseEntity.created(new URI("/api/spots/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
@@ -90,10 +113,27 @@ public class SpotResource {
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /spots/:id} : Partially updates an existing spot with a JSON Merge Patch.
+     *
+     * @param id the id of the spot to patch.
+     * @param patch the merge patch, keyed by property name.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched spot,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the spot doesn't exist.
+     */
+    @PatchMapping(value = "/spots/{id}", consumes = { Constants.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Spot> patchSpot(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        log.debug("REST request to patch Spot : {}, {}", id, patch);
+        Optional<Spot> result = mergePatchService.patch(Spot.class, ENTITY_NAME, id, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        Objects.requireNonNull(cacheManager.getCache(SpotRepository.SPOTS_BY_ID_CACHE)).evict(id);
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     @PostMapping("/spots/addImage")
     public ResponseEntity<Spot> addImage(@RequestPart("title") String title, @RequestPart("idSpot") String idSpot, @RequestPart("file") String file ) throws IOException {
 
-        Spot spot = spotRepository.findById(idSpot).get();
+        Spot spot = spotRepository.findOneById(idSpot).get();
         Photo p = new Photo();
         p.setImage(file);
         p.setTitle(title);
@@ -106,7 +146,7 @@ public class SpotResource {
     @PostMapping("/spots/deleteImage")
     public ResponseEntity<Spot> deleteImage(@RequestPart("idImage") String idImage, @RequestPart("idSpot") String idSpot) {
         log.debug("REST request to delete Image from spot: {}", idImage);
-        Spot spot = spotRepository.findById(idSpot).get();
+        Spot spot = spotRepository.findOneById(idSpot).get();
         removeObjectFromSet(spot.getPhotos(), idImage);
         Spot result = spotRepository.save(spot);
         photoRepository.deleteById(idImage);
@@ -1,10 +1,17 @@
 package com.limonnana.skate.web.rest;
 
+import com.limonnana.skate.config.Constants;
+import com.limonnana.skate.config.ReplicaReads;
 import com.limonnana.skate.domain.Event;
 import com.limonnana.skate.domain.Trick;
 import com.limonnana.skate.repository.EventRepository;
+import com.limonnana.skate.repository.MongoIds;
 import com.limonnana.skate.repository.TrickRepository;
+import com.limonnana.skate.service.LeaderboardService;
+import com.limonnana.skate.service.MergePatchService;
+import com.limonnana.skate.service.TrickService;
 import com.limonnana.skate.web.rest.errors.BadRequestAlertException;
+import com.limonnana.skate.web.rest.util.JsonStreamWriter;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -12,25 +19,39 @@ import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing {@link com.limonnana.skate.domain.Trick}.
  */
 @RestController
+@ReplicaReads
 @RequestMapping("/api")
 public class TrickResource {
 
@@ -38,6 +59,10 @@ public class TrickResource {
 
     private static final String ENTITY_NAME = "trick";
 
+    private static final Set<String> PATCHABLE_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("name", "objectiveAmount")));
+
+    private static final Set<String> REQUIRED_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("name", "objectiveAmount")));
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -47,8 +72,25 @@ public class TrickResource {
 
     private final EventRepository eventRepository;
 
-    public TrickResource(TrickRepository trickRepository, EventResource eventResource, EventRepository eventRepository) {
+    private final MergePatchService mergePatchService;
+
+    private final CacheManager cacheManager;
+
+    private final LeaderboardService leaderboardService;
+
+    private final JsonStreamWriter jsonStreamWriter;
+
+    private final TrickService trickService;
+
+    public TrickResource(TrickRepository trickRepository, EventResource eventResource, EventRepository eventRepository,
+                         MergePatchService mergePatchService, LeaderboardService leaderboardService,
+                         CacheManager cacheManager, JsonStreamWriter jsonStreamWriter, TrickService trickService) {
         this.trickRepository = trickRepository;
+        this.trickService = trickService;
+        this.jsonStreamWriter = jsonStreamWriter;
+        this.cacheManager = cacheManager;
+        this.mergePatchService = mergePatchService;
+        this.leaderboardService = leaderboardService;
         this.eventResource = eventResource;
         this.eventRepository = eventRepository;
     }
@@ -66,11 +108,13 @@ public class TrickResource {
         if (trick.getId() != null) {
             throw new BadRequestAlertException("A new trick cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        trick.setId(MongoIds.newId());
         Trick result = trickRepository.save(trick);
         Iterable<Event> activeIterable = eventRepository.findByActiveTrue();
         Event active = activeIterable.iterator().next();
         active.getTricks().add(result);
         eventRepository.save(active);
+        leaderboardService.evictEvent(active.getId());
         return ResponseEntity.created(new URI("/api/tricks/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
             .body(result);
@@ -92,23 +136,60 @@ public class TrickResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         Trick result = trickRepository.save(trick);
+        leaderboardService.evictTrick(result.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, trick.getId()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /tricks/:id} : Partially updates an existing trick with a JSON Merge Patch.
+     * <p>
+     * Only the name and the objective can be patched, the amounts and percentages are computed from the
+     * contributions again when the objective changes.
+     *
+     * @param id the id of the trick to patch.
+     * @param patch the merge patch, keyed by property name.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched trick,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the trick doesn't exist.
+     */
+    @PatchMapping(value = "/tricks/{id}", consumes = { Constants.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Trick> patchTrick(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+        log.debug("REST request to patch Trick : {}, {}", id, patch);
+        Optional<Trick> result = mergePatchService.patch(Trick.class, ENTITY_NAME, id, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        if (patch.containsKey("objectiveAmount")) {
+            result = result.map(trickService::updateAmounts).map(trickRepository::save);
+        }
+        Objects.requireNonNull(cacheManager.getCache(TrickRepository.TRICKS_BY_ID_CACHE)).evict(id);
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     /**
      * {@code GET  /tricks} : get all the tricks.
+     * <p>
+     * The tricks are streamed from a cursor. The pagination headers need a count of all the tricks, which
+     * clients paging until a short page can skip with {@code count=false}.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tricks in body.
+     * @param count whether to count the tricks for the pagination headers.
+     * @param request the request, whose {@code Accept} header chooses between JSON, CBOR and Smile.
+     * @param response the response the list of tricks is written to, with status {@code 200 (OK)}.
+     * @throws HttpMediaTypeNotAcceptableException {@code 406 (Not Acceptable)} if the request accepts none of these formats.
+     * @throws IOException if the response cannot be written.
      */
     @GetMapping("/tricks")
-    public ResponseEntity<List<Trick>> getAllTricks(Pageable pageable) {
+    public void getAllTricks(Pageable pageable, @RequestParam(defaultValue = "true") boolean count,
+                             HttpServletRequest request, HttpServletResponse response) throws HttpMediaTypeNotAcceptableException, IOException {
         log.debug("REST request to get a page of Tricks");
-        Page<Trick> page = trickRepository.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        if (count) {
+            Page<Trick> page = new PageImpl<>(Collections.emptyList(), pageable, trickRepository.count());
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        }
+        try (Stream<Trick> tricks = trickRepository.streamAllBy(pageable)) {
+            jsonStreamWriter.writeArray(request, response, tricks.iterator());
+        }
     }
 
     /**
@@ -134,6 +215,7 @@ public class TrickResource {
     public ResponseEntity<Void> deleteTrick(@PathVariable String id) {
         log.debug("REST request to delete Trick : {}", id);
         trickRepository.deleteById(id);
+        leaderboardService.evictTrick(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id)).build();
     }
 }
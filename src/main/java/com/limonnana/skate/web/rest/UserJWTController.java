@@ -1,21 +1,31 @@
 package com.limonnana.skate.web.rest;
 
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.security.SecurityUtils;
 import com.limonnana.skate.security.jwt.JWTFilter;
 import com.limonnana.skate.security.jwt.TokenProvider;
+import com.limonnana.skate.security.jwt.TokenRevocationService;
+import com.limonnana.skate.service.UserService;
 import com.limonnana.skate.web.rest.vm.LoginVM;
+import com.limonnana.skate.web.rest.vm.RefreshTokenVM;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.jsonwebtoken.Claims;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.UUID;
 
 /**
  * Controller to authenticate users.
@@ -28,9 +38,23 @@ public class UserJWTController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final UserDetailsService userDetailsService;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final UserService userService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder,
+                             UserDetailsService userDetailsService, TokenRevocationService tokenRevocationService,
+                             UserService userService, ApplicationProperties applicationProperties) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userService = userService;
+        this.applicationProperties = applicationProperties;
     }
 
     @PostMapping("/authenticate")
@@ -42,10 +66,57 @@ public class UserJWTController {
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         boolean rememberMe = (loginVM.isRememberMe() == null) ? false : loginVM.isRememberMe();
-        String jwt = tokenProvider.createToken(authentication, rememberMe);
+        String sessionId = UUID.randomUUID().toString();
+        String refreshToken = tokenProvider.createRefreshToken(authentication, sessionId, rememberMe);
+        return tokenResponse(createToken(authentication, sessionId), refreshToken);
+    }
+
+    /**
+     * {@code POST  /authenticate/refresh} : renew the access token of a session.
+     * <p>
+     * The user is read again, so that a deactivated user or changed authorities take effect.
+     *
+     * @param refreshTokenVM the refresh token received on authentication.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and a new access token in body.
+     * @throws BadCredentialsException {@code 401 (Unauthorized)} if the refresh token is invalid, expired or revoked.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        Claims claims = tokenProvider.validateRefreshToken(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        UserDetails user = userDetailsService.loadUserByUsername(claims.getSubject());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        return tokenResponse(createToken(authentication, claims.getId()), refreshTokenVM.getRefreshToken());
+    }
+
+    /**
+     * {@code POST  /logout} : revoke the session of the current access token, and so its refresh token.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        SecurityUtils.getCurrentUserJWT()
+            .map(tokenProvider::getSessionId)
+            .ifPresent(tokenRevocationService::revokeSession);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * The profile is read along with the account view cache, so that the first {@code GET /account} is served from it.
+     */
+    private String createToken(Authentication authentication, String sessionId) {
+        if (!applicationProperties.getJwt().isProfileClaims()) {
+            return tokenProvider.createToken(authentication, sessionId);
+        }
+        return tokenProvider.createToken(authentication, sessionId,
+            userService.getAccountByLogin(authentication.getName()).orElse(null));
+    }
+
+    private static ResponseEntity<JWTToken> tokenResponse(String jwt, String refreshToken) {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
     }
     /**
      * Object to return as body in JWT Authentication.
@@ -54,8 +125,11 @@ public class UserJWTController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -66,5 +140,14 @@ public class UserJWTController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
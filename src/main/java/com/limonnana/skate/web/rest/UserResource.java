@@ -2,6 +2,7 @@ package com.limonnana.skate.web.rest;
 
 import com.limonnana.skate.config.Constants;
 import com.limonnana.skate.domain.ContributionForm;
+import com.limonnana.skate.domain.IdempotentRequest;
 import com.limonnana.skate.domain.Seccion;
 import com.limonnana.skate.domain.Trick;
 import com.limonnana.skate.domain.User;
@@ -9,12 +10,17 @@ import com.limonnana.skate.repository.SeccionRepository;
 import com.limonnana.skate.repository.TrickRepository;
 import com.limonnana.skate.repository.UserRepository;
 import com.limonnana.skate.security.AuthoritiesConstants;
+import com.limonnana.skate.service.IdempotencyService;
+import com.limonnana.skate.service.LeaderboardService;
 import com.limonnana.skate.service.MailService;
+import com.limonnana.skate.service.TrickService;
+import com.limonnana.skate.service.UserSearchService;
 import com.limonnana.skate.service.dto.PictureDTO;
 import org.springframework.data.domain.Sort;
 import java.util.Collections;
 import com.limonnana.skate.service.UserService;
 import com.limonnana.skate.service.dto.UserDTO;
+import com.limonnana.skate.service.dto.UserSearchResultDTO;
 import com.limonnana.skate.web.rest.errors.BadRequestAlertException;
 import com.limonnana.skate.web.rest.errors.EmailAlreadyUsedException;
 import com.limonnana.skate.web.rest.errors.LoginAlreadyUsedException;
@@ -67,6 +73,8 @@ import java.util.*;
 @RestController
 @RequestMapping("/api")
 public class UserResource {
+    private static final String CONTRIBUTION_SCOPE = "contribution";
+
     private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(Arrays.asList("id", "login", "firstName", "lastName", "email", "activated", "langKey"));
 
     private final Logger log = LoggerFactory.getLogger(UserResource.class);
@@ -84,16 +92,32 @@ public class UserResource {
 
     private final SeccionRepository seccionRepository;
 
+    private final LeaderboardService leaderboardService;
+
+    private final IdempotencyService idempotencyService;
+
+    private final UserSearchService userSearchService;
+
+    private final TrickService trickService;
+
     public UserResource(TrickRepository trickRepository,
                         UserService userService,
                         UserRepository userRepository,
                         MailService mailService,
-                        SeccionRepository seccionRepository) {
+                        SeccionRepository seccionRepository,
+                        LeaderboardService leaderboardService,
+                        IdempotencyService idempotencyService,
+                        UserSearchService userSearchService,
+                        TrickService trickService) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
         this.trickRepository = trickRepository;
         this.seccionRepository = seccionRepository;
+        this.leaderboardService = leaderboardService;
+        this.idempotencyService = idempotencyService;
+        this.userSearchService = userSearchService;
+        this.trickService = trickService;
     }
 
     /**
@@ -207,6 +231,19 @@ public class UserResource {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
 
+    /**
+     * {@code GET /users/search?query=:query} : search the users by prefixes of their names, login and phone.
+     *
+     * @param query the prefixes of the words to find, all of them must match.
+     * @param limit the maximum number of users to return, at most {@value UserSearchService#MAX_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching users in body, best matches first.
+     */
+    @GetMapping("/users/search")
+    public List<UserSearchResultDTO> searchUsers(@RequestParam String query, @RequestParam(defaultValue = "10") int limit) {
+        log.debug("REST request to search Users : {}", query);
+        return userSearchService.search(query, limit, false);
+    }
+
     /**
      * Gets a list of all roles.
      * @return a string list of all roles.
@@ -245,56 +282,103 @@ public class UserResource {
         return ResponseEntity.noContent().headers(HeaderUtil.createAlert(applicationName,  "A user is deleted with identifier " + login, login)).build();
     }
 
+    /**
+     * {@code POST  /users/contribution} : Creates a contribution to a trick.
+     * <p>
+     * When the request carries an {@code Idempotency-Key} header, retries with the same key replay the
+     * response of the first request without applying the contribution again.
+     *
+     * @param contributionForm the contribution to create.
+     * @param idempotencyKey   the optional key deduplicating retries of the same contribution.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the contributing user,
+     * or with status {@code 409 (Conflict)} if a request with the same key is still in progress.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the key was used for a different contribution.
+     */
     @PostMapping("/users/contribution")
-    public ResponseEntity<User> createContribution(@Valid @RequestBody ContributionForm contributionForm) throws URISyntaxException {
+    public ResponseEntity<User> createContribution(@Valid @RequestBody ContributionForm contributionForm,
+                                                   @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws URISyntaxException {
         log.debug("REST request to save Contribution : {}", contributionForm);
+        if (idempotencyKey == null) {
+            Seccion seccion = contribute(contributionForm);
+            return contributionCreated(seccion.getUser(), seccion.getId());
+        }
 
-        User user = new User();
-
-        if(contributionForm.getPhone() != null){
-            user = userRepository.findOneByLogin(contributionForm.getPhone()).get();
-            if(user == null){
-                user = userRepository.findOneByPhone(contributionForm.getPhone()).get();
-            }
+        String fingerprint = IdempotencyService.fingerprint(contributionForm.getTrick().getId(), contributionForm.getAmount(),
+            contributionForm.getPhone(), contributionForm.getUserFullName());
+        IdempotencyService.Claim claim = idempotencyService.claim(CONTRIBUTION_SCOPE, idempotencyKey, fingerprint);
+        if (!claim.isHeld()) {
+            return replayContribution(claim.getPrevious().get(), fingerprint);
         }
-        if(user == null){
+        Seccion seccion;
+        try {
+            seccion = contribute(contributionForm);
+        } catch (RuntimeException e) {
+            idempotencyService.abandon(claim);
+            throw e;
+        }
+        idempotencyService.complete(claim, seccion.getUser().getId(), seccion.getId());
+        return contributionCreated(seccion.getUser(), seccion.getId());
+    }
 
-            String fullName = contributionForm.getUserFullName().trim();
-            int location = fullName.indexOf(" ");
-            String firstName = fullName.substring(0, location);
-            String lastName = fullName.substring(location + 1);
-            user.setLogin(contributionForm.getPhone());
-            user.setFirstName(firstName);
-            user.setLastName(lastName);
-            user.setPhone(contributionForm.getPhone());
-            user.setActivated(true);
-
-            user = userService.registerUserFromContribution(user);
+    private ResponseEntity<User> replayContribution(IdempotentRequest previous, String fingerprint) throws URISyntaxException {
+        if (!fingerprint.equals(previous.getFingerprint())) {
+            throw new BadRequestAlertException("Idempotency key already used for another contribution", "contribution", "idempotencykeyreused");
+        }
+        if (!previous.isCompleted()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Optional<User> user = userRepository.findById(previous.getUserId());
+        if (!user.isPresent()) {
+            return ResponseEntity.notFound().build();
         }
+        return contributionCreated(user.get(), previous.getResourceId());
+    }
+
+    private ResponseEntity<User> contributionCreated(User user, String seccionId) throws URISyntaxException {
+        return ResponseEntity.created(new URI("/api/users/" + user.getLogin()))
+            .headers(HeaderUtil.createAlert(applicationName,  "A Tip is created with identifier " + seccionId, seccionId))
+            .body(user);
+    }
+
+    private Seccion contribute(ContributionForm contributionForm) {
+        User user = userService.findOrRegisterByPhone(contributionForm.getPhone(), () -> contributor(contributionForm));
 
-        Trick trick = trickRepository.findById(contributionForm.getTrick().getId()).get();
+        Trick trick = trickRepository.findOneById(contributionForm.getTrick().getId()).get();
         Seccion seccion = new Seccion();
         seccion.setUser(user);
         String amount = contributionForm.getAmount();
         int shekel = Integer.parseInt(amount);
         seccion.setShekel(shekel);
-        seccion.setPorcentaje(calculatePorcentage(shekel, trick.getObjectiveAmount()));
+        seccion.setPorcentaje(trickService.calculatePorcentage(shekel, trick.getObjectiveAmount()));
         trick.getSecciones().add(seccion);
-        int ca = calculateCurrentAmount(trick.getSecciones());
+        int ca = trickService.calculateCurrentAmount(trick.getSecciones());
 
         if(ca > trick.getObjectiveAmount()){
             trick.setObjectiveAmount(ca);
-            trick = resetTrickQuantities(trick);
+            trick = trickService.resetTrickQuantities(trick);
             }
         trick.setCurrentAmount(ca);
-        trick = setTotalPercentages(trick);
+        trick = trickService.setTotalPercentages(trick);
         seccion = seccionRepository.save(seccion);
         trick.getSecciones().add(seccion);
         trickRepository.save(trick);
+        leaderboardService.evictTrick(trick.getId());
+        return seccion;
+    }
 
-        return ResponseEntity.created(new URI("/api/users/" + user.getLogin()))
-            .headers(HeaderUtil.createAlert(applicationName,  "A Tip is created with identifier " + seccion.getId(), seccion.getId()))
-            .body(user);
+    private static User contributor(ContributionForm contributionForm) {
+        User user = new User();
+        String fullName = contributionForm.getUserFullName().trim();
+        int location = fullName.indexOf(" ");
+        String firstName = fullName.substring(0, location);
+        String lastName = fullName.substring(location + 1);
+        user.setLogin(contributionForm.getPhone());
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setPhone(contributionForm.getPhone());
+        user.setActivated(true);
+        return user;
     }
 
     public User userDTOToUser(UserDTO userDTO){
@@ -306,44 +390,4 @@ public class UserResource {
         user.setEmail(userDTO.getEmail());
         return user;
     }
-
-    private int calculatePorcentage(int shekel, int objectiveAmount){
-        float shekelF = shekel;
-        float objectiveAmountF = objectiveAmount;
-        float result = (shekelF / objectiveAmountF) * 100;
-        return (int)result;
-    }
-
-    private Trick setTotalPercentages(Trick trick){
-
-        float ca = calculateCurrentAmount(trick.getSecciones());
-        float finalAmount = trick.getObjectiveAmount().intValue();
-        float toGo = finalAmount - ca;
-        float percentageDone = (ca / finalAmount) * 100;
-        float percentageToGo = 100 - percentageDone;
-        int pd = Math.round(percentageDone);
-        int ptg = Math.round(percentageToGo);
-        trick.setPercentageCovered(pd);
-        trick.setPercentageToGo(ptg);
-        return trick;
-    }
-
-    private int calculateCurrentAmount(Set<Seccion> secciones){
-        int result = 0;
-
-        for(Seccion s : secciones){
-            result = result + s.getShekel();
-        }
-        return result;
-    }
-
-    private Trick resetTrickQuantities(Trick trick){
-
-        for(Seccion s : trick.getSecciones()){
-            int newPorcentaje = calculatePorcentage(s.getShekel(), trick.getObjectiveAmount());
-            s.setPorcentaje(newPorcentaje);
-            seccionRepository.save(s);
-        }
-        return trick;
-    }
 }
@@ -1,5 +1,7 @@
 package com.limonnana.skate.web.rest.errors;
 
+import com.limonnana.skate.service.InvalidPatchException;
+
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.web.util.HeaderUtil;
 
@@ -124,6 +126,12 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInvalidPatchException(InvalidPatchException ex, NativeWebRequest request) {
+        BadRequestAlertException problem = new BadRequestAlertException(ex.getMessage(), ex.getEntityName(), "patchinvalid");
+        return create(problem, request, HeaderUtil.createFailureAlert(applicationName, false, problem.getEntityName(), problem.getErrorKey(), problem.getMessage()));
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleBadRequestAlertException(BadRequestAlertException ex, NativeWebRequest request) {
         return create(ex, request, HeaderUtil.createFailureAlert(applicationName, false, ex.getEntityName(), ex.getErrorKey(), ex.getMessage()));
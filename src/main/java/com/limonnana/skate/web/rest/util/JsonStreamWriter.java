@@ -0,0 +1,118 @@
+package com.limonnana.skate.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes JSON arrays to a response one element at a time, as they are read from a MongoDB cursor.
+ * <p>
+ * Only the element being serialized is held in memory, and the response starts as soon as the first element
+ * is read. Once the response has started an error can only truncate it, so the query must be checked first.
+ * <p>
+ * The array is written as CBOR or Smile instead when the client asks for it, with the object mappers of the
+ * message converters serving these formats.
+ */
+@Component
+public class JsonStreamWriter {
+
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    private final List<Format> formats = new ArrayList<>();
+
+    public JsonStreamWriter(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+                            MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+                            ContentNegotiationManager contentNegotiationManager) {
+        this.contentNegotiationManager = contentNegotiationManager;
+        for (AbstractJackson2HttpMessageConverter converter : Arrays.asList(
+            new MappingJackson2HttpMessageConverter(objectMapper), cborHttpMessageConverter, smileHttpMessageConverter)) {
+            for (MediaType mediaType : converter.getSupportedMediaTypes()) {
+                // Not application/*+json, which cannot be the content type of the response
+                if (mediaType.isConcrete()) {
+                    formats.add(new Format(mediaType, converter.getObjectMapper()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the elements as an array, the body of the response, in the format the request accepts.
+     *
+     * @param request  the request.
+     * @param response the response.
+     * @param elements the elements, typically a cursor.
+     * @return the number of elements written.
+     * @throws HttpMediaTypeNotAcceptableException if the request accepts none of JSON, CBOR and Smile.
+     * @throws IOException if the response cannot be written.
+     */
+    public long writeArray(HttpServletRequest request, HttpServletResponse response, Iterator<?> elements)
+        throws HttpMediaTypeNotAcceptableException, IOException {
+        Format format = negotiate(request);
+        response.setContentType(format.mediaType.toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        long count = 0;
+        try (JsonGenerator generator = format.objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            while (elements.hasNext()) {
+                format.objectWriter.writeValue(generator, elements.next());
+                if (count++ == 0) {
+                    // Send the first element right away, the following ones as the buffers fill
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    private Format negotiate(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> acceptedMediaTypes = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            for (Format format : formats) {
+                if (acceptedMediaType.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        List<MediaType> supportedMediaTypes = new ArrayList<>();
+        formats.forEach(format -> supportedMediaTypes.add(format.mediaType));
+        throw new HttpMediaTypeNotAcceptableException(supportedMediaTypes);
+    }
+
+    private static final class Format {
+
+        private final MediaType mediaType;
+
+        private final ObjectMapper objectMapper;
+
+        private final ObjectWriter objectWriter;
+
+        private Format(MediaType mediaType, ObjectMapper objectMapper) {
+            this.mediaType = mediaType;
+            this.objectMapper = objectMapper;
+            this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+    }
+}
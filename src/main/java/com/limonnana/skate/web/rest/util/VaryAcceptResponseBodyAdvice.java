@@ -0,0 +1,35 @@
+package com.limonnana.skate.web.rest.util;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds {@code Vary: Accept} to the bodies written by a Jackson converter, whose format, JSON, CBOR or Smile,
+ * is negotiated from the {@code Accept} header, so that caches don't serve one format to clients asking for another.
+ */
+@ControllerAdvice
+public class VaryAcceptResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,28 @@
+package com.limonnana.skate.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * View Model object for renewing an access token.
+ */
+public class RefreshTokenVM {
+
+    @NotNull
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshTokenVM{}";
+    }
+}
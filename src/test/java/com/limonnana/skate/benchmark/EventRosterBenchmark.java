@@ -0,0 +1,65 @@
+package com.limonnana.skate.benchmark;
+
+import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.domain.Player;
+
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding, finding and removing a player on event rosters of growing size.
+ * <p>
+ * With players hashing on their id the cost of each operation stays flat as the roster grows.
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.limonnana.skate.benchmark.EventRosterBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventRosterBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int rosterSize;
+
+    private Event event;
+
+    private Player player;
+
+    @Setup
+    public void setUp() {
+        event = new Event();
+        for (int i = 0; i < rosterSize; i++) {
+            event.addPlayer(player());
+        }
+        player = player();
+    }
+
+    @Benchmark
+    public boolean addAndRemovePlayer() {
+        event.addPlayer(player);
+        return event.getPlayers().remove(player);
+    }
+
+    @Benchmark
+    public boolean containsPlayer() {
+        return event.getPlayers().contains(player);
+    }
+
+    private static Player player() {
+        Player player = new Player();
+        player.setId(new ObjectId().toHexString());
+        return player;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventRosterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.limonnana.skate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.limonnana.skate.domain.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing an active event with growing tricks and players, with and without the Afterburner module.
+ * <p>
+ * Both mappers must produce the same bytes, which is checked once on setup.
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.limonnana.skate.benchmark.EventSerializationBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int eventSize;
+
+    private ObjectMapper reflectiveMapper;
+
+    private ObjectMapper afterburnerMapper;
+
+    private Event event;
+
+    @Setup
+    public void setUp() throws Exception {
+        reflectiveMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        afterburnerMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new AfterburnerModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        event = event(eventSize);
+        if (!Arrays.equals(reflectiveMapper.writeValueAsBytes(event), afterburnerMapper.writeValueAsBytes(event))) {
+            throw new IllegalStateException("Afterburner output differs from the reflective output");
+        }
+    }
+
+    @Benchmark
+    public byte[] reflective() throws Exception {
+        return reflectiveMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] afterburner() throws Exception {
+        return afterburnerMapper.writeValueAsBytes(event);
+    }
+
+    private static Event event(int size) {
+        Spot spot = new Spot().name("Park").description("Bowl and rails");
+        spot.setId("spot");
+        Event event = new Event().name("Jam").day(LocalDate.of(2020, 5, 2)).dayString("02/05/2020");
+        event.setId("event");
+        event.setSpot(spot);
+        event.setActive(true);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId("user-" + i);
+            user.setLogin("skater-" + i);
+            user.setFirstName("Skater " + i);
+            user.setActivated(true);
+            Player player = new Player();
+            player.setId("player-" + i);
+            player.setUser(user);
+            event.addPlayer(player);
+
+            Seccion seccion = new Seccion();
+            seccion.setId("seccion-" + i);
+            seccion.setUser(user);
+            seccion.setPorcentaje(10);
+            seccion.setShekel(20);
+            Trick trick = new Trick().name("Trick " + i).objectiveAmount(200).currentAmount(20);
+            trick.setId("trick-" + i);
+            trick.getSecciones().add(seccion);
+            event.addTrick(trick);
+
+            Photo photo = new Photo();
+            photo.setId("photo-" + i);
+            photo.setTitle("Photo " + i);
+            photo.setImage("aW1hZ2U=");
+            event.getPhotos().add(photo);
+        }
+        return event;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
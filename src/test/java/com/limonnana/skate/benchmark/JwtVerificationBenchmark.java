@@ -0,0 +1,92 @@
+package com.limonnana.skate.benchmark;
+
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.repository.JwtSigningKeyRepository;
+import com.limonnana.skate.security.jwt.JwtKeyRing;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures verifying an access token: HS512 with a parser built per call, as before the key ring,
+ * HS512 with a cached parser, and ES256 through the {@link JwtKeyRing}.
+ * <p>
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.limonnana.skate.benchmark.JwtVerificationBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private Key key;
+
+    private JwtParser hmacParser;
+
+    private JwtKeyRing keyRing;
+
+    private String hmacToken;
+
+    private String ecToken;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        hmacParser = Jwts.parserBuilder().setSigningKey(key).build();
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(SECRET);
+        keyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), new ApplicationProperties(), jHipsterProperties);
+        keyRing.synchronize();
+        hmacToken = claims(Jwts.builder()).signWith(key, SignatureAlgorithm.HS512).compact();
+        ecToken = claims(keyRing.sign(Jwts.builder())).compact();
+    }
+
+    @Benchmark
+    public Claims hs512NewParser() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(hmacToken).getBody();
+    }
+
+    @Benchmark
+    public Claims hs512CachedParser() {
+        return hmacParser.parseClaimsJws(hmacToken).getBody();
+    }
+
+    @Benchmark
+    public Claims es256KeyRing() {
+        return keyRing.parse(ecToken);
+    }
+
+    private static JwtBuilder claims(JwtBuilder builder) {
+        return builder
+            .setSubject("skater")
+            .claim("auth", "ROLE_USER")
+            .claim("sid", "session")
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.limonnana.skate.benchmark;
+
+import com.limonnana.skate.domain.User;
+import com.limonnana.skate.service.MailTemplateRenderer;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many activation emails per second are rendered by the template engine, and from the
+ * fragments cached by {@link MailTemplateRenderer}.
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.limonnana.skate.benchmark.MailTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private MailTemplateRenderer templateEngineRenderer;
+
+    private MailTemplateRenderer cachingRenderer;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        ThymeleafProperties uncached = new ThymeleafProperties();
+        uncached.setCache(false);
+        templateEngineRenderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, uncached);
+        cachingRenderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, new ThymeleafProperties());
+
+        user = new User();
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        user.setLangKey("en");
+        user.setActivationKey("12345678901234567890");
+    }
+
+    @Benchmark
+    public MailTemplateRenderer.RenderedMail renderWithTemplateEngine() {
+        return templateEngineRenderer.render(user, "mail/activationEmail", "email.activation.title");
+    }
+
+    @Benchmark
+    public MailTemplateRenderer.RenderedMail renderFromCachedFragments() {
+        return cachingRenderer.render(user, "mail/activationEmail", "email.activation.title");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
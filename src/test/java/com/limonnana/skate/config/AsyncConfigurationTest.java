@@ -0,0 +1,99 @@
+package com.limonnana.skate.config;
+
+import io.github.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the {@link AsyncConfiguration} executors.
+ */
+public class AsyncConfigurationTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private AsyncConfiguration asyncConfiguration;
+
+    private ExceptionHandlingAsyncTaskExecutor executor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Async.Pool media = applicationProperties.getAsync().getMedia();
+        media.setCoreSize(1);
+        media.setMaxSize(1);
+        media.setQueueCapacity(1);
+        media.setRejectionPolicy(ApplicationProperties.Async.RejectionPolicy.ABORT);
+        ApplicationProperties.Async.Pool analytics = applicationProperties.getAsync().getAnalytics();
+        analytics.setCoreSize(1);
+        analytics.setMaxSize(1);
+        analytics.setQueueCapacity(1);
+        analytics.setRejectionPolicy(ApplicationProperties.Async.RejectionPolicy.DISCARD);
+        asyncConfiguration = new AsyncConfiguration(new TaskExecutionProperties(), applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        release.countDown();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testSaturatedExecutorAborts() throws Exception {
+        executor = (ExceptionHandlingAsyncTaskExecutor) asyncConfiguration.mediaExecutor();
+        executor.afterPropertiesSet();
+
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> block(started));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(() -> block(null));
+
+        assertThatThrownBy(() -> executor.execute(() -> block(null))).isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "media").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.active").tag("name", "media").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "media").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSaturatedExecutorDiscards() throws Exception {
+        executor = (ExceptionHandlingAsyncTaskExecutor) asyncConfiguration.analyticsExecutor();
+        executor.afterPropertiesSet();
+
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> block(started));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(() -> block(null));
+        executor.execute(() -> block(null));
+
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "analytics").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "analytics").gauge().value()).isEqualTo(1);
+    }
+
+    private void block(CountDownLatch started) {
+        if (started != null) {
+            started.countDown();
+        }
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
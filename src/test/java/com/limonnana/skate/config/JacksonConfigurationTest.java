@@ -0,0 +1,101 @@
+package com.limonnana.skate.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.limonnana.skate.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link JacksonConfiguration}.
+ */
+public class JacksonConfigurationTest {
+
+    private final JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+
+    private ObjectMapper reflectiveMapper;
+
+    private ObjectMapper afterburnerMapper;
+
+    @BeforeEach
+    public void setup() {
+        reflectiveMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        afterburnerMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule(), jacksonConfiguration.afterburnerModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    @Test
+    public void testAfterburnerWritesTheSameBytes() throws Exception {
+        Event event = event();
+
+        byte[] expected = reflectiveMapper.writeValueAsBytes(event);
+
+        // Twice, the accessors are generated on first use
+        assertThat(afterburnerMapper.writeValueAsBytes(event)).isEqualTo(expected);
+        assertThat(afterburnerMapper.writeValueAsBytes(event)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testAfterburnerReadsTheSameEvent() throws Exception {
+        byte[] json = reflectiveMapper.writeValueAsBytes(event());
+
+        Event event = afterburnerMapper.readValue(json, Event.class);
+
+        assertThat(reflectiveMapper.writeValueAsBytes(event)).isEqualTo(json);
+    }
+
+    private static Event event() {
+        Authority authority = new Authority();
+        authority.setName("ROLE_USER");
+        User user = new User();
+        user.setId("user-1");
+        user.setLogin("skater");
+        user.setFirstName("Dana");
+        user.setPhone("+972 50-123-4567");
+        user.setActivated(true);
+        user.setResetDate(Instant.parse("2020-05-01T10:15:30Z"));
+        user.setAuthorities(Collections.singleton(authority));
+
+        Seccion seccion = new Seccion();
+        seccion.setId("seccion-1");
+        seccion.setUser(user);
+        seccion.setPorcentaje(25);
+        seccion.setShekel(50);
+        Trick trick = new Trick().name("Kickflip").objectiveAmount(200).currentAmount(50);
+        trick.setId("trick-1");
+        trick.getSecciones().add(seccion);
+
+        Player player = new Player();
+        player.setId("player-1");
+        player.setUser(user);
+
+        Photo photo = new Photo();
+        photo.setId("photo-1");
+        photo.setTitle("Rail");
+        photo.setImage("aW1hZ2U=");
+        Spot spot = new Spot().name("Park").description("Bowl and rails");
+        spot.setId("spot-1");
+        spot.getPhotos().add(photo);
+
+        Event event = new Event().name("Jam").day(LocalDate.of(2020, 5, 2)).dayString("02/05/2020");
+        event.setId("event-1");
+        event.setSpot(spot);
+        event.setActive(true);
+        event.addTrick(trick);
+        event.addPlayer(player);
+        event.getPhotos().add(photo);
+        return event;
+    }
+}
@@ -0,0 +1,60 @@
+package com.limonnana.skate.config;
+
+import com.mongodb.MongoClientOptions;
+import com.mongodb.ReadPreference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the {@link MongoClientConfiguration}.
+ */
+public class MongoClientConfigurationTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private MongoClientConfiguration mongoClientConfiguration;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        mongoClientConfiguration = new MongoClientConfiguration(applicationProperties);
+    }
+
+    @Test
+    public void testClientOptions() {
+        ApplicationProperties.Mongo mongo = applicationProperties.getMongo();
+        mongo.getPool().setMinSize(5);
+        mongo.getPool().setMaxSize(20);
+        mongo.getPool().setMaxWaitTime(Duration.ofSeconds(3));
+        mongo.setSocketTimeout(Duration.ofMinutes(1));
+        mongo.setReadPreference("secondaryPreferred");
+        mongo.setCompressors(Collections.singletonList("zlib"));
+
+        MongoClientOptions options = mongoClientConfiguration.mongoClientOptions(
+            mongoClientConfiguration.mongoConnectionPoolListener(new SimpleMeterRegistry()));
+
+        assertThat(options.getMinConnectionsPerHost()).isEqualTo(5);
+        assertThat(options.getConnectionsPerHost()).isEqualTo(20);
+        assertThat(options.getMaxWaitTime()).isEqualTo(3000);
+        assertThat(options.getSocketTimeout()).isEqualTo(60000);
+        assertThat(options.getReadPreference()).isEqualTo(ReadPreference.secondaryPreferred());
+        assertThat(options.getCompressorList()).extracting("name").containsExactly("zlib");
+        assertThat(options.getConnectionPoolListeners()).hasSize(1);
+    }
+
+    @Test
+    public void testUnknownCompressorIsRejected() {
+        applicationProperties.getMongo().setCompressors(Collections.singletonList("lz4"));
+
+        assertThatThrownBy(() -> mongoClientConfiguration.mongoClientOptions(
+            mongoClientConfiguration.mongoConnectionPoolListener(new SimpleMeterRegistry())))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.limonnana.skate.config;
+
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ReplicaReadRouting}.
+ */
+public class ReplicaReadRoutingTest {
+
+    @AfterEach
+    public void tearDown() {
+        ReplicaReadRouting.clear();
+    }
+
+    @Test
+    public void testReadsAreOnlyRoutedWhenEnabled() {
+        assertThat(ReplicaReadRouting.isRoutingToReplicas()).isFalse();
+        ReplicaReadRouting.routeToReplicas();
+        assertThat(ReplicaReadRouting.isRoutingToReplicas()).isTrue();
+        ReplicaReadRouting.clear();
+        assertThat(ReplicaReadRouting.isRoutingToReplicas()).isFalse();
+    }
+
+    @Test
+    public void testWritesPinReadsToPrimary() {
+        ReplicaReadRouting.routeToReplicas();
+        ReplicaReadRouting.pinningCommandListener().commandStarted(command("find"));
+        assertThat(ReplicaReadRouting.isRoutingToReplicas()).isTrue();
+
+        ReplicaReadRouting.pinningCommandListener().commandStarted(command("update"));
+        assertThat(ReplicaReadRouting.isRoutingToReplicas()).isFalse();
+    }
+
+    @Test
+    public void testPrimaryReadsKeepTheWritePin() {
+        ReplicaReadRouting.routeToReplicas();
+        Boolean routedInside = ReplicaReadRouting.onPrimary(() -> {
+            ReplicaReadRouting.pinToPrimary();
+            return ReplicaReadRouting.isRoutingToReplicas();
+        });
+        assertThat(routedInside).isFalse();
+        assertThat(ReplicaReadRouting.isRoutingToReplicas()).isFalse();
+    }
+
+    @Test
+    public void testPrimaryReadsRestoreRouting() {
+        ReplicaReadRouting.routeToReplicas();
+        assertThat(ReplicaReadRouting.onPrimary(ReplicaReadRouting::isRoutingToReplicas)).isFalse();
+        assertThat(ReplicaReadRouting.isRoutingToReplicas()).isTrue();
+    }
+
+    private static CommandStartedEvent command(String name) {
+        return new CommandStartedEvent(1, null, "skate03", name, new BsonDocument());
+    }
+}
@@ -14,6 +14,7 @@ public class EventTest {
         Event event2 = new Event();
         event2.setId(event1.getId());
         assertThat(event1).isEqualTo(event2);
+        assertThat(event1.hashCode()).isEqualTo(event2.hashCode());
         event2.setId("id2");
         assertThat(event1).isNotEqualTo(event2);
         event1.setId(null);
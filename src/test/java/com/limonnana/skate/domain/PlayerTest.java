@@ -6,7 +6,7 @@ import com.limonnana.skate.web.rest.TestUtil;
 
 public class PlayerTest {
 
-   // @Test
+    @Test
     public void equalsVerifier() throws Exception {
         TestUtil.equalsVerifier(Player.class);
         Player player1 = new Player();
@@ -14,6 +14,7 @@ public class PlayerTest {
         Player player2 = new Player();
         player2.setId(player1.getId());
         assertThat(player1).isEqualTo(player2);
+        assertThat(player1.hashCode()).isEqualTo(player2.hashCode());
         player2.setId("id2");
         assertThat(player1).isNotEqualTo(player2);
         player1.setId(null);
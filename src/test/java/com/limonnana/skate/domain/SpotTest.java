@@ -14,6 +14,7 @@ public class SpotTest {
         Spot spot2 = new Spot();
         spot2.setId(spot1.getId());
         assertThat(spot1).isEqualTo(spot2);
+        assertThat(spot1.hashCode()).isEqualTo(spot2.hashCode());
         spot2.setId("id2");
         assertThat(spot1).isNotEqualTo(spot2);
         spot1.setId(null);
@@ -14,6 +14,7 @@ public class TrickTest {
         Trick trick2 = new Trick();
         trick2.setId(trick1.getId());
         assertThat(trick1).isEqualTo(trick2);
+        assertThat(trick1.hashCode()).isEqualTo(trick2.hashCode());
         trick2.setId("id2");
         assertThat(trick1).isNotEqualTo(trick2);
         trick1.setId(null);
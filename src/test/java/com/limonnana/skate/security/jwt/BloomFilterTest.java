@@ -0,0 +1,48 @@
+package com.limonnana.skate.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testContainsEveryPutValue() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("session:" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain("session:" + i)).isTrue();
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("session:" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("user:" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertThat(new BloomFilter(10, 0.01).mightContain("session:1")).isFalse();
+    }
+
+    @Test
+    public void testInvalidSize() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,9 +1,9 @@
 package com.limonnana.skate.security.jwt;
 
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.repository.JwtSigningKeyRepository;
 import com.limonnana.skate.security.AuthoritiesConstants;
 import io.github.jhipster.config.JHipsterProperties;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +19,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 public class JWTFilterTest {
 
@@ -29,10 +30,12 @@ public class JWTFilterTest {
     @BeforeEach
     public void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        tokenProvider = new TokenProvider(jHipsterProperties);
-        ReflectionTestUtils.setField(tokenProvider, "key",
-            Keys.hmacShaKeyFor(Decoders.BASE64
-                .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")));
+        jHipsterProperties.getSecurity().getAuthentication().getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        JwtKeyRing keyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), applicationProperties, jHipsterProperties);
+        keyRing.synchronize();
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, keyRing, mock(TokenRevocationService.class));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
         jwtFilter = new JWTFilter(tokenProvider);
@@ -46,7 +49,7 @@ public class JWTFilterTest {
             "test-password",
             Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
         );
-        String jwt = tokenProvider.createToken(authentication, false);
+        String jwt = tokenProvider.createToken(authentication, "session");
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
         request.setRequestURI("/api/test");
@@ -101,7 +104,7 @@ public class JWTFilterTest {
             "test-password",
             Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
         );
-        String jwt = tokenProvider.createToken(authentication, false);
+        String jwt = tokenProvider.createToken(authentication, "session");
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Basic " + jwt);
         request.setRequestURI("/api/test");
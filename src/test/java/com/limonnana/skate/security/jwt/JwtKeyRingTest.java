@@ -0,0 +1,129 @@
+package com.limonnana.skate.security.jwt;
+
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.domain.JwtSigningKey;
+import com.limonnana.skate.repository.JwtSigningKeyRepository;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JwtKeyRingTest {
+
+    private static final String SECRET = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private final List<JwtSigningKey> storedKeys = new ArrayList<>();
+
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @BeforeEach
+    public void setup() {
+        storedKeys.clear();
+        jwtSigningKeyRepository = mock(JwtSigningKeyRepository.class);
+        when(jwtSigningKeyRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(storedKeys));
+        when(jwtSigningKeyRepository.insert(any(JwtSigningKey.class))).thenAnswer(invocation -> {
+            JwtSigningKey inserted = invocation.getArgument(0);
+            if (storedKeys.stream().anyMatch(key -> inserted.getGeneration().equals(key.getGeneration()))) {
+                throw new DuplicateKeyException("generation");
+            }
+            storedKeys.add(inserted);
+            return inserted;
+        });
+    }
+
+    @Test
+    public void testInstancesShareTheStoredKey() {
+        JwtKeyRing keyRing = keyRing(SECRET);
+        JwtKeyRing otherKeyRing = keyRing(SECRET);
+
+        assertThat(storedKeys).hasSize(1);
+        assertThat(storedKeys.get(0).getAlgorithm()).isEqualTo("ES256");
+        assertThat(otherKeyRing.getSigningKeyId()).isEqualTo(keyRing.getSigningKeyId());
+        assertThat(otherKeyRing.parse(token(keyRing)).getSubject()).isEqualTo("skater");
+        assertThat(keyRing.parse(token(otherKeyRing)).getSubject()).isEqualTo("skater");
+    }
+
+    @Test
+    public void testInstancesStartingTogetherShareTheFirstKey() {
+        JwtKeyRing keyRing = keyRing(SECRET);
+        // The other instance read the keys before the first one inserted its key
+        when(jwtSigningKeyRepository.findAll())
+            .thenReturn(new ArrayList<>())
+            .thenAnswer(invocation -> new ArrayList<>(storedKeys));
+
+        JwtKeyRing otherKeyRing = keyRing(SECRET);
+
+        assertThat(storedKeys).hasSize(1);
+        assertThat(storedKeys.get(0).getGeneration()).isEqualTo(1);
+        assertThat(otherKeyRing.getSigningKeyId()).isEqualTo(keyRing.getSigningKeyId());
+    }
+
+    @Test
+    public void testNewKeySignsOnceEveryInstanceKnowsIt() {
+        JwtKeyRing keyRing = keyRing(SECRET);
+        String oldKeyId = keyRing.getSigningKeyId();
+        String oldToken = token(keyRing);
+        storedKeys.get(0).setCreatedDate(Instant.now().minus(Duration.ofDays(8)));
+
+        JwtKeyRing rotatingKeyRing = keyRing(SECRET);
+
+        assertThat(storedKeys).hasSize(2);
+        assertThat(storedKeys.get(1).getGeneration()).isEqualTo(2);
+        assertThat(rotatingKeyRing.getSigningKeyId()).isEqualTo(oldKeyId);
+
+        storedKeys.get(1).setCreatedDate(Instant.now().minus(Duration.ofMinutes(3)));
+        keyRing.synchronize();
+
+        assertThat(storedKeys).hasSize(2);
+        assertThat(keyRing.getSigningKeyId()).isEqualTo(storedKeys.get(1).getId());
+        assertThat(keyRing.parse(oldToken).getSubject()).isEqualTo("skater");
+        assertThat(rotatingKeyRing.parse(token(keyRing)).getSubject()).isEqualTo("skater");
+    }
+
+    @Test
+    public void testKeysOfAnotherSecretOnlyVerify() {
+        JwtKeyRing keyRing = keyRing(SECRET);
+        JwtKeyRing otherKeyRing = keyRing("X" + SECRET);
+
+        assertThat(storedKeys).hasSize(2);
+        assertThat(otherKeyRing.getSigningKeyId()).isNotEqualTo(keyRing.getSigningKeyId());
+        assertThat(otherKeyRing.parse(token(keyRing)).getSubject()).isEqualTo("skater");
+    }
+
+    @Test
+    public void testExpiredKeyNoLongerVerifies() {
+        JwtKeyRing keyRing = keyRing(SECRET);
+        String token = token(keyRing);
+        storedKeys.clear();
+
+        keyRing.synchronize();
+
+        assertThatThrownBy(() -> keyRing.parse(token)).isInstanceOf(JwtException.class);
+    }
+
+    private JwtKeyRing keyRing(String secret) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(secret);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtSigningKeyRepository, new ApplicationProperties(), jHipsterProperties);
+        keyRing.synchronize();
+        return keyRing;
+    }
+
+    private static String token(JwtKeyRing keyRing) {
+        return keyRing.sign(Jwts.builder()).setSubject("skater").compact();
+    }
+}
@@ -1,8 +1,13 @@
 package com.limonnana.skate.security.jwt;
 
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.repository.JwtSigningKeyRepository;
 import com.limonnana.skate.security.AuthoritiesConstants;
+import com.limonnana.skate.service.dto.UserDTO;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.*;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,28 +19,39 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import io.github.jhipster.config.JHipsterProperties;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
+    private static final String SECRET = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
     private Key key;
+    private ApplicationProperties applicationProperties;
+    private JHipsterProperties jHipsterProperties;
+    private TokenRevocationService tokenRevocationService;
     private TokenProvider tokenProvider;
 
     @BeforeEach
     public void setup() {
-        tokenProvider = new TokenProvider( new JHipsterProperties());
-        key = Keys.hmacShaKeyFor(Decoders.BASE64
-            .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
+        applicationProperties = new ApplicationProperties();
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(SECRET);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, keyRing(), tokenRevocationService);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
 
-        ReflectionTestUtils.setField(tokenProvider, "key", key);
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+        ReflectionTestUtils.setField(tokenProvider, "refreshTokenValidityInMilliseconds", ONE_MINUTE);
     }
 
     @Test
@@ -48,7 +64,7 @@ public class TokenProviderTest {
     @Test
     public void testReturnFalseWhenJWTisMalformed() {
         Authentication authentication = createAuthentication();
-        String token = tokenProvider.createToken(authentication, false);
+        String token = tokenProvider.createToken(authentication, "session");
         String invalidToken = token.substring(1);
         boolean isTokenValid = tokenProvider.validateToken(invalidToken);
 
@@ -60,7 +76,7 @@ public class TokenProviderTest {
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
 
         Authentication authentication = createAuthentication();
-        String token = tokenProvider.createToken(authentication, false);
+        String token = tokenProvider.createToken(authentication, "session");
 
         boolean isTokenValid = tokenProvider.validateToken(token);
 
@@ -76,6 +92,112 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testReturnFalseWhenJWTisRevoked() {
+        Authentication authentication = createAuthentication();
+        String token = tokenProvider.createToken(authentication, "session");
+        when(tokenRevocationService.isRevoked(eq("session"), eq("anonymous"), any())).thenReturn(true);
+
+        boolean isTokenValid = tokenProvider.validateToken(token);
+
+        assertThat(isTokenValid).isEqualTo(false);
+    }
+
+    @Test
+    public void testReturnFalseWhenJWTisARefreshToken() {
+        String refreshToken = tokenProvider.createRefreshToken(createAuthentication(), "session", false);
+
+        boolean isTokenValid = tokenProvider.validateToken(refreshToken);
+
+        assertThat(isTokenValid).isEqualTo(false);
+    }
+
+    @Test
+    public void testValidateRefreshToken() {
+        Authentication authentication = createAuthentication();
+        String refreshToken = tokenProvider.createRefreshToken(authentication, "session", false);
+
+        Optional<Claims> claims = tokenProvider.validateRefreshToken(refreshToken);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getSubject()).isEqualTo("anonymous");
+        assertThat(claims.get().getId()).isEqualTo("session");
+        assertThat(tokenProvider.validateRefreshToken(tokenProvider.createToken(authentication, "session"))).isEmpty();
+    }
+
+    @Test
+    public void testValidateRevokedRefreshToken() {
+        String refreshToken = tokenProvider.createRefreshToken(createAuthentication(), "session", false);
+        when(tokenRevocationService.isRevoked(eq("session"), eq("anonymous"), any())).thenReturn(true);
+
+        assertThat(tokenProvider.validateRefreshToken(refreshToken)).isEmpty();
+    }
+
+    @Test
+    public void testGetSessionId() {
+        String token = tokenProvider.createToken(createAuthentication(), "session");
+
+        assertThat(tokenProvider.getSessionId(token)).isEqualTo("session");
+    }
+
+    @Test
+    public void testProfileVersion() {
+        UserDTO profile = new UserDTO();
+        profile.setFirstName("john");
+        profile.setLastModifiedDate(Instant.ofEpochMilli(1588320000123L));
+        String token = tokenProvider.createToken(createAuthentication(), "session", profile);
+
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        assertThat(tokenProvider.getProfileVersion(token)).contains(Instant.ofEpochMilli(1588320000123L));
+        // Only the version is carried, not the profile itself
+        assertThat(new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8)).doesNotContain("john");
+        assertThat(tokenProvider.getProfileVersion(tokenProvider.createToken(createAuthentication(), "session"))).isEmpty();
+        assertThat(tokenProvider.getProfileVersion("password")).isEmpty();
+    }
+
+    @Test
+    public void testHeaderCarriesTheKeyId() {
+        JwtKeyRing keyRing = keyRing();
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, keyRing, tokenRevocationService);
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), "session");
+
+        String header = new String(Decoders.BASE64URL.decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+
+        assertThat(header).contains("\"alg\":\"ES256\"", "\"kid\":\"" + keyRing.getSigningKeyId() + "\"");
+    }
+
+    @Test
+    public void testReturnFalseWhenJWTisSignedWithAnUnknownKey() {
+        TokenProvider otherTokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, keyRing(),
+            tokenRevocationService);
+        ReflectionTestUtils.setField(otherTokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+
+        String token = otherTokenProvider.createToken(createAuthentication(), "session");
+
+        assertThat(otherTokenProvider.validateToken(token)).isTrue();
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    public void testLegacyToken() {
+        String token = Jwts.builder()
+            .setSubject("anonymous")
+            .claim("auth", AuthoritiesConstants.ANONYMOUS)
+            .claim("sid", "session")
+            .signWith(key, SignatureAlgorithm.HS512)
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+
+        applicationProperties.getJwt().getKeys().setAcceptLegacyTokens(false);
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, keyRing(), tokenRevocationService);
+
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
     @Test
     public void testReturnFalseWhenJWTisInvalid() {
         boolean isTokenValid = tokenProvider.validateToken("");
@@ -83,6 +205,12 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    private JwtKeyRing keyRing() {
+        JwtKeyRing keyRing = new JwtKeyRing(mock(JwtSigningKeyRepository.class), applicationProperties, jHipsterProperties);
+        keyRing.synchronize();
+        return keyRing;
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,43 @@
+package com.limonnana.skate.security.jwt;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.repository.RevokedTokenRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link TokenRevocationService}.
+ */
+@SpringBootTest(classes = Skate03App.class)
+public class TokenRevocationServiceIT {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @BeforeEach
+    public void init() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    public void tokensIssuedUpToTheSecondOfTheRevocationAreRevoked() {
+        tokenRevocationService.revokeSession("session");
+        Instant revokedSecond = revokedTokenRepository.findAll().get(0).getRevokedDate().truncatedTo(ChronoUnit.SECONDS);
+
+        assertThat(tokenRevocationService.isRevoked("session", "user", revokedSecond.minusSeconds(1))).isTrue();
+        assertThat(tokenRevocationService.isRevoked("session", "user", revokedSecond)).isTrue();
+        assertThat(tokenRevocationService.isRevoked("session", "user", revokedSecond.plusSeconds(1))).isFalse();
+        assertThat(tokenRevocationService.isRevoked("other", "user", revokedSecond)).isFalse();
+    }
+}
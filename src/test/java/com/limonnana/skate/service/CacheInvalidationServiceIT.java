@@ -0,0 +1,95 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.domain.Trick;
+import com.limonnana.skate.repository.TrickRepository;
+import com.limonnana.skate.web.rest.TrickResourceIT;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CacheInvalidationService}, against an embedded single-node replica set.
+ */
+@SpringBootTest(classes = Skate03App.class, properties = {
+    "spring.mongodb.embedded.version=4.0.2",
+    "spring.mongodb.embedded.storage.repl-set-name=rs0",
+    "application.cache.invalidation.enabled=true"
+})
+public class CacheInvalidationServiceIT {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void initReplicaSet() throws InterruptedException {
+        try {
+            mongoClient.getDatabase("admin").runCommand(new Document("replSetInitiate", new Document()));
+        } catch (MongoCommandException e) {
+            // Already initiated by a previous test
+        }
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!Boolean.TRUE.equals(mongoClient.getDatabase("admin").runCommand(new Document("isMaster", 1)).getBoolean("ismaster"))) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void trickUpdatedByAnotherInstanceIsEvicted() throws InterruptedException {
+        Trick trick = trickRepository.save(TrickResourceIT.createEntity());
+        Cache cache = cacheManager.getCache(TrickRepository.TRICKS_BY_ID_CACHE);
+
+        // The stream may still be opening while the replica set elects its primary, write until it is seen
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        do {
+            trickRepository.findById(trick.getId());
+            assertThat(cache.get(trick.getId())).isNotNull();
+            // Written behind the repository, as another instance would
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(trick.getId())), Update.update("name", "updated"), Trick.class);
+            Thread.sleep(200);
+        } while (cache.get(trick.getId()) != null && System.currentTimeMillis() < deadline);
+
+        assertThat(cache.get(trick.getId())).isNull();
+        assertThat(trickRepository.findById(trick.getId()).get().getName()).isEqualTo("updated");
+    }
+
+    @Test
+    public void resumeTokenIsSaved() throws InterruptedException {
+        MongoCollection<Document> resumeTokens = mongoTemplate.getCollection(CacheInvalidationService.RESUME_TOKEN_COLLECTION);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        do {
+            Trick trick = trickRepository.save(TrickResourceIT.createEntity());
+            trickRepository.delete(trick);
+            Thread.sleep(200);
+        } while (resumeTokens.countDocuments() == 0 && System.currentTimeMillis() < deadline);
+
+        assertThat(resumeTokens.countDocuments()).isEqualTo(1);
+    }
+}
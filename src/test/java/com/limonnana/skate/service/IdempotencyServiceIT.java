@@ -0,0 +1,92 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.domain.IdempotentRequest;
+import com.limonnana.skate.repository.IdempotentRequestRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link IdempotencyService}.
+ */
+@SpringBootTest(classes = Skate03App.class)
+public class IdempotencyServiceIT {
+
+    private static final String SCOPE = "test";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
+    @BeforeEach
+    public void init() {
+        idempotentRequestRepository.deleteAll();
+    }
+
+    @Test
+    public void claimIsReplayedUntilAbandoned() {
+        IdempotencyService.Claim claim = idempotencyService.claim(SCOPE, "key", "fingerprint");
+        assertThat(claim.isHeld()).isTrue();
+
+        IdempotencyService.Claim retry = idempotencyService.claim(SCOPE, "key", "fingerprint");
+        assertThat(retry.isHeld()).isFalse();
+        assertThat(retry.getPrevious().get().isCompleted()).isFalse();
+
+        idempotencyService.abandon(claim);
+        assertThat(idempotencyService.claim(SCOPE, "key", "fingerprint").isHeld()).isTrue();
+    }
+
+    @Test
+    public void timedOutClaimIsTakenOverByTheSameRequest() {
+        assertThat(idempotencyService.claim(SCOPE, "key", "fingerprint").isHeld()).isTrue();
+        timeOut();
+
+        assertThat(idempotencyService.claim(SCOPE, "key", "other").isHeld()).isFalse();
+        assertThat(idempotencyService.claim(SCOPE, "key", "fingerprint").isHeld()).isTrue();
+        assertThat(idempotencyService.claim(SCOPE, "key", "fingerprint").isHeld()).isFalse();
+    }
+
+    @Test
+    public void claimTakenOverIsNeitherAbandonedNorCompletedByTheLostRequest() {
+        IdempotencyService.Claim lost = idempotencyService.claim(SCOPE, "key", "fingerprint");
+        timeOut();
+        IdempotencyService.Claim retry = idempotencyService.claim(SCOPE, "key", "fingerprint");
+        assertThat(retry.isHeld()).isTrue();
+
+        idempotencyService.abandon(lost);
+        assertThat(idempotentRequestRepository.findById(SCOPE + ":key")).isPresent();
+        assertThat(idempotencyService.complete(lost, "user", "lost")).isFalse();
+
+        assertThat(idempotencyService.complete(retry, "user", "resource")).isTrue();
+        Optional<IdempotentRequest> previous = idempotencyService.claim(SCOPE, "key", "fingerprint").getPrevious();
+        assertThat(previous).isPresent();
+        assertThat(previous.get().getResourceId()).isEqualTo("resource");
+    }
+
+    @Test
+    public void completedClaimIsNeverTakenOver() {
+        IdempotencyService.Claim claim = idempotencyService.claim(SCOPE, "key", "fingerprint");
+        assertThat(idempotencyService.complete(claim, "user", "resource")).isTrue();
+        timeOut();
+
+        Optional<IdempotentRequest> previous = idempotencyService.claim(SCOPE, "key", "fingerprint").getPrevious();
+        assertThat(previous).isPresent();
+        assertThat(previous.get().getResourceId()).isEqualTo("resource");
+    }
+
+    private void timeOut() {
+        IdempotentRequest request = idempotentRequestRepository.findById(SCOPE + ":key").get();
+        request.setCreatedDate(Instant.now().minus(IdempotencyService.CLAIM_TIMEOUT).minusSeconds(1));
+        idempotentRequestRepository.save(request);
+    }
+}
@@ -0,0 +1,75 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.domain.LeaseLock;
+import com.limonnana.skate.repository.LeaseLockRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link LeaseLockService}.
+ */
+@SpringBootTest(classes = Skate03App.class)
+public class LeaseLockServiceIT {
+
+    private static final String LOCK = "test-lock";
+
+    private static final Duration LEASE_TIME = Duration.ofMinutes(1);
+
+    @Autowired
+    private LeaseLockService leaseLockService;
+
+    @Autowired
+    private LeaseLockRepository leaseLockRepository;
+
+    @BeforeEach
+    public void init() {
+        leaseLockRepository.deleteAll();
+    }
+
+    @Test
+    public void acquireFreeLockAndRenewIt() {
+        Optional<Long> first = leaseLockService.tryAcquire(LOCK, LEASE_TIME);
+        Optional<Long> renewed = leaseLockService.tryAcquire(LOCK, LEASE_TIME);
+
+        assertThat(first).contains(1L);
+        assertThat(renewed).contains(2L);
+        assertThat(leaseLockService.isHeld(LOCK, 1L)).isFalse();
+        assertThat(leaseLockService.isHeld(LOCK, 2L)).isTrue();
+    }
+
+    @Test
+    public void lockHeldByAnotherInstanceIsNotAcquired() {
+        leaseLockRepository.save(lock("other-instance", Instant.now().plus(LEASE_TIME)));
+
+        assertThat(leaseLockService.tryAcquire(LOCK, LEASE_TIME)).isEmpty();
+        assertThat(leaseLockService.runExclusively(LOCK, LEASE_TIME, fencingToken -> { })).isFalse();
+    }
+
+    @Test
+    public void expiredLockIsTakenOverWithNextFencingToken() {
+        leaseLockRepository.save(lock("other-instance", Instant.now().minusSeconds(1)));
+
+        assertThat(leaseLockService.tryAcquire(LOCK, LEASE_TIME)).contains(6L);
+        assertThat(leaseLockRepository.findById(LOCK).get().getOwner()).isEqualTo(leaseLockService.getOwner());
+    }
+
+    private static LeaseLock lock(String owner, Instant expiresAt) {
+        LeaseLock lock = new LeaseLock();
+        lock.setName(LOCK);
+        lock.setOwner(owner);
+        lock.setFencingToken(5L);
+        lock.setAcquiredDate(Instant.now());
+        lock.setExpiresAt(expiresAt);
+        return lock;
+    }
+}
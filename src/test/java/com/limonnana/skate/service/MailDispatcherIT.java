@@ -0,0 +1,140 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.config.ApplicationProperties;
+import com.limonnana.skate.domain.MailMessage;
+import com.limonnana.skate.repository.MailMessageRepository;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.Multipart;
+import javax.mail.internet.MimeMessage;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link MailDispatcher}, against a local SMTP server.
+ */
+@SpringBootTest(classes = Skate03App.class)
+public class MailDispatcherIT {
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private MailMessageRepository mailMessageRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LeaseLockService leaseLockService;
+
+    private GreenMail greenMail;
+
+    private ApplicationProperties applicationProperties;
+
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    public void setup() {
+        mailMessageRepository.deleteAll();
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().getOutbox().setMaxAttempts(2);
+        mailDispatcher = new MailDispatcher(jHipsterProperties, applicationProperties, mailSender, mailMessageRepository,
+            mongoTemplate, leaseLockService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mailDispatcher.closeTransport();
+        greenMail.stop();
+    }
+
+    @Test
+    public void testDispatchBatch() throws Exception {
+        queue("john.doe@example.com", false, false);
+        queue("jane.doe@example.com", false, true);
+        queue("jim.doe@example.com", true, false);
+
+        assertThat(mailDispatcher.dispatch()).isEqualTo(3);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        for (MimeMessage message : received) {
+            assertThat(message.getSubject()).isEqualTo("testSubject");
+            assertThat(message.getFrom()[0].toString()).isEqualTo(jHipsterProperties.getMail().getFrom());
+        }
+        assertThat(received[0].getContentType()).startsWith("text/plain");
+        assertThat(received[1].getContentType()).startsWith("text/html");
+        assertThat(received[2].getContent()).isInstanceOf(Multipart.class);
+        assertThat(mailMessageRepository.findAll()).allSatisfy(message -> {
+            assertThat(message.getStatus()).isEqualTo(MailMessage.Status.SENT);
+            assertThat(message.getSentDate()).isNotNull();
+            assertThat(message.getExpireDate()).isAfter(Instant.now());
+        });
+        assertThat(mailDispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    public void testDispatchWhenServerIsDown() {
+        queue("john.doe@example.com", false, false);
+        greenMail.stop();
+
+        assertThat(mailDispatcher.dispatch()).isZero();
+
+        MailMessage message = mailMessageRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailMessage.Status.PENDING);
+        assertThat(message.getAttempts()).isZero();
+    }
+
+    @Test
+    public void testRetryWithBackoff() {
+        queue("not an address", false, false);
+
+        assertThat(mailDispatcher.dispatch()).isEqualTo(1);
+        MailMessage message = mailMessageRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailMessage.Status.PENDING);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(message.getNextAttemptDate()).isAfter(Instant.now());
+        assertThat(message.getLastError()).isNotNull();
+
+        // Not due yet
+        assertThat(mailDispatcher.dispatch()).isZero();
+
+        message.setNextAttemptDate(Instant.now());
+        mailMessageRepository.save(message);
+        assertThat(mailDispatcher.dispatch()).isEqualTo(1);
+        message = mailMessageRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailMessage.Status.FAILED);
+        assertThat(message.getExpireDate()).isAfter(Instant.now());
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private void queue(String to, boolean multipart, boolean html) {
+        MailMessage message = new MailMessage();
+        message.setTo(to);
+        message.setSubject("testSubject");
+        message.setContent("testContent");
+        message.setMultipart(multipart);
+        message.setHtml(html);
+        // Distinct dates keep the dispatch order
+        message.setNextAttemptDate(Instant.now().minusSeconds(10).plusMillis(mailMessageRepository.count()));
+        mailMessageRepository.save(message);
+    }
+}
@@ -0,0 +1,84 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.config.Constants;
+import com.limonnana.skate.domain.User;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}.
+ */
+@SpringBootTest(classes = Skate03App.class)
+public class MailTemplateRendererIT {
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    private MailTemplateRenderer cachingRenderer;
+
+    private MailTemplateRenderer uncachedRenderer;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        ThymeleafProperties cached = new ThymeleafProperties();
+        cached.setCache(true);
+        cachingRenderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, cached);
+        ThymeleafProperties uncached = new ThymeleafProperties();
+        uncached.setCache(false);
+        uncachedRenderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, uncached);
+
+        user = new User();
+        user.setLogin("john<&>'\"doe");
+        user.setEmail("john.doe@example.com");
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setActivationKey("activation123");
+        user.setResetKey("reset123");
+    }
+
+    @Test
+    public void testCachedRenderingIsIdentical() {
+        String[][] templates = {
+            {"mail/activationEmail", "email.activation.title"},
+            {"mail/creationEmail", "email.activation.title"},
+            {"mail/passwordResetEmail", "email.reset.title"},
+            {"mail/testEmail", "email.test.title"}
+        };
+        for (String[] template : templates) {
+            // Twice, to render from the cache the second time
+            for (int i = 0; i < 2; i++) {
+                MailTemplateRenderer.RenderedMail expected = uncachedRenderer.render(user, template[0], template[1]);
+                MailTemplateRenderer.RenderedMail actual = cachingRenderer.render(user, template[0], template[1]);
+                assertThat(actual.getSubject()).isEqualTo(expected.getSubject());
+                assertThat(actual.getContent()).isEqualTo(expected.getContent());
+            }
+        }
+    }
+
+    @Test
+    public void testUserMissingPrintedPropertyIsRenderedByTheEngine() {
+        cachingRenderer.render(user, "mail/passwordResetEmail", "email.reset.title");
+        user.setResetKey(null);
+
+        MailTemplateRenderer.RenderedMail expected = uncachedRenderer.render(user, "mail/passwordResetEmail", "email.reset.title");
+        MailTemplateRenderer.RenderedMail actual = cachingRenderer.render(user, "mail/passwordResetEmail", "email.reset.title");
+        assertThat(actual.getContent()).isEqualTo(expected.getContent());
+    }
+}
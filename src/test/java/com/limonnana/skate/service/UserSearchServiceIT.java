@@ -0,0 +1,122 @@
+package com.limonnana.skate.service;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.domain.Player;
+import com.limonnana.skate.domain.User;
+import com.limonnana.skate.repository.PlayerRepository;
+import com.limonnana.skate.repository.UserRepository;
+import com.limonnana.skate.service.dto.UserSearchResultDTO;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link UserSearchService}.
+ */
+@SpringBootTest(classes = Skate03App.class)
+public class UserSearchServiceIT {
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private User ramon;
+
+    private User ramona;
+
+    @BeforeEach
+    public void init() {
+        ramon = userRepository.save(user("0541234567", "Ramón", "Zylberstein"));
+        ramona = userRepository.save(user("0529876543", "Ramona", "Zylberman"));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        playerRepository.deleteAll();
+        userRepository.delete(ramon);
+        userRepository.delete(ramona);
+    }
+
+    @Test
+    public void assertThatWordPrefixesMatchIgnoringCaseAndAccents() {
+        assertThat(userIds(userSearchService.search("RAMO", 10, false))).containsExactly(ramon.getId(), ramona.getId());
+        assertThat(userIds(userSearchService.search("ramona", 10, false))).containsExactly(ramona.getId());
+        assertThat(userIds(userSearchService.search("ramon zylbers", 10, false))).containsExactly(ramon.getId());
+        assertThat(userIds(userSearchService.search("ramo", 1, false))).hasSize(1);
+        assertThat(userSearchService.search("zylbx", 10, false)).isEmpty();
+    }
+
+    @Test
+    public void assertThatWholeWordsRankFirst() {
+        User ramonZylberman = userRepository.save(user("0501112233", "Ramon", "Zylberman"));
+        try {
+            assertThat(userIds(userSearchService.search("zylberman ramon", 10, false)))
+                .containsExactly(ramonZylberman.getId(), ramona.getId());
+            assertThat(userIds(userSearchService.search("zylberman ramon", 1, false))).containsExactly(ramonZylberman.getId());
+        } finally {
+            userRepository.delete(ramonZylberman);
+        }
+    }
+
+    @Test
+    public void assertThatPhonesMatchWithoutSeparators() {
+        assertThat(userIds(userSearchService.search("054-123", 10, false))).containsExactly(ramon.getId());
+        assertThat(userIds(userSearchService.search("05", 10, false))).contains(ramon.getId(), ramona.getId());
+    }
+
+    @Test
+    public void assertThatWritesAreIndexed() {
+        ramona.setLastName("Kaplan");
+        userRepository.save(ramona);
+        assertThat(userIds(userSearchService.search("zylb", 10, false))).containsExactly(ramon.getId());
+        assertThat(userIds(userSearchService.search("kap", 10, false))).containsExactly(ramona.getId());
+
+        userRepository.delete(ramon);
+        assertThat(userSearchService.search("zylb", 10, false)).isEmpty();
+    }
+
+    @Test
+    public void assertThatPlayersAreFound() {
+        assertThat(userSearchService.search("ramo", 10, true)).isEmpty();
+
+        Player player = new Player();
+        player.setUser(ramona);
+        player = playerRepository.save(player);
+
+        List<UserSearchResultDTO> results = userSearchService.search("ramo", 10, true);
+        assertThat(userIds(results)).containsExactly(ramona.getId());
+        assertThat(results.get(0).getPlayerId()).isEqualTo(player.getId());
+
+        playerRepository.deleteById(player.getId());
+        assertThat(userSearchService.search("ramo", 10, true)).isEmpty();
+    }
+
+    private static User user(String phone, String firstName, String lastName) {
+        User user = new User();
+        user.setLogin(phone);
+        user.setPhone(phone);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        return user;
+    }
+
+    private static List<String> userIds(List<UserSearchResultDTO> results) {
+        return results.stream().map(UserSearchResultDTO::getUserId).collect(Collectors.toList());
+    }
+}
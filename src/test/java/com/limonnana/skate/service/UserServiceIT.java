@@ -5,6 +5,7 @@ import com.limonnana.skate.config.Constants;
 import com.limonnana.skate.domain.User;
 import com.limonnana.skate.repository.UserRepository;
 import com.limonnana.skate.service.dto.UserDTO;
+import com.limonnana.skate.web.rest.errors.PhoneAlreadyUsedException;
 
 import io.github.jhipster.security.RandomUtil;
 
@@ -15,13 +16,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.test.context.support.WithMockUser;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Integration tests for {@link UserService}.
@@ -47,6 +55,9 @@ public class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private User user;
 
     @BeforeEach
@@ -148,6 +159,26 @@ public class UserServiceIT {
         assertThat(users).isEmpty();
     }
 
+    @Test
+    public void assertThatUsersActivatedSinceTheyWereReadAreNotDeleted() {
+        Instant now = Instant.now();
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        User dbUser = userRepository.save(user);
+        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        userRepository.save(user);
+        Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
+        assertThat(userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo)).contains(dbUser);
+
+        dbUser.setActivated(true);
+        dbUser.setActivationKey(null);
+        userRepository.save(dbUser);
+
+        assertThat(userRepository.deleteByIdInAndActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
+            Collections.singletonList(dbUser.getId()), threeDaysAgo)).isZero();
+        assertThat(userRepository.findById(dbUser.getId())).isPresent();
+    }
+
     @Test
     public void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
         Instant now = Instant.now();
@@ -176,4 +207,119 @@ public class UserServiceIT {
             .isTrue();
     }
 
+    @Test
+    public void assertThatPhoneIsFoundWhateverItsFormat() {
+        user.setPhone("054-123-4567");
+        userRepository.save(user);
+
+        assertThat(userService.findOneByPhone("0541234567")).contains(user);
+        assertThat(userService.findOneByPhone("+972 54 123 4567")).contains(user);
+        assertThat(userService.findOneByPhone("00972541234567")).contains(user);
+        assertThat(userService.findOneByPhone("0541234568")).isNotPresent();
+    }
+
+    @Test
+    public void assertThatPhoneCannotBeRegisteredTwice() {
+        user.setPhone("0541234567");
+        userRepository.save(user);
+
+        User contributor = new User();
+        contributor.setPhone("+972-54-123-4567");
+        contributor.setLogin(contributor.getPhone());
+        assertThatThrownBy(() -> userService.registerUserFromContribution(contributor))
+            .isInstanceOf(PhoneAlreadyUsedException.class);
+    }
+
+    @Test
+    public void assertThatPhoneOfAnotherUserIsNotFree() {
+        user.setPhone("0541234567");
+        userRepository.save(user);
+
+        assertThat(userService.checkPhoneIsFree("+972-54-123-4567", user)).isEqualTo("0541234567");
+        assertThat(userService.checkPhoneIsFree("0541234568", null)).isEqualTo("0541234568");
+        assertThatThrownBy(() -> userService.checkPhoneIsFree("+972-54-123-4567", null))
+            .isInstanceOf(PhoneAlreadyUsedException.class);
+        assertThatThrownBy(() -> userService.checkPhoneIsFree(DEFAULT_LOGIN.toUpperCase(), null))
+            .isInstanceOf(UsernameAlreadyUsedException.class);
+    }
+
+    @Test
+    public void assertThatDeduplicatedUserKeepsTheirPhoneWithoutKey() {
+        user.setPhone("0541234567");
+        userRepository.save(user);
+        User duplicate = new User();
+        duplicate.setLogin("duplicate");
+        duplicate.setPassword(RandomStringUtils.random(60));
+        duplicate.setPhone("054-123-4567");
+        duplicate.setPhoneKey(null);
+        userRepository.save(duplicate);
+
+        userService.changePhone(duplicate, "054-123-4567");
+        userService.saveUser(duplicate);
+        assertThat(userRepository.findById(duplicate.getId()).get().getPhoneKey()).isNull();
+
+        userService.changePhone(duplicate, "0541234568");
+        userService.saveUser(duplicate);
+        assertThat(userRepository.findById(duplicate.getId()).get().getPhoneKey()).isEqualTo("0541234568");
+
+        assertThatThrownBy(() -> userService.changePhone(duplicate, "0541234567"))
+            .isInstanceOf(PhoneAlreadyUsedException.class);
+    }
+
+    @Test
+    public void assertThatUpdateCannotTakeThePhoneOfAnotherUser() {
+        user.setPhone("0541234567");
+        userRepository.save(user);
+        User other = new User();
+        other.setLogin("other");
+        other.setPassword(RandomStringUtils.random(60));
+        other.setPhone("0541234568");
+        other.setActivated(true);
+        userRepository.save(other);
+
+        UserDTO userDTO = new UserDTO(other);
+        userDTO.setPhone("+972 54 123 4567");
+        assertThatThrownBy(() -> userService.updateUser(userDTO)).isInstanceOf(PhoneAlreadyUsedException.class);
+        assertThat(userRepository.findById(other.getId()).get().getPhone()).isEqualTo("0541234568");
+    }
+
+    @Test
+    @WithMockUser(DEFAULT_LOGIN)
+    public void assertThatAccountIsServedFromCacheUntilAProfileVersionIsNewer() {
+        userRepository.save(user);
+        Instant version = userService.getAccountByLogin(DEFAULT_LOGIN).get().getLastModifiedDate();
+
+        // Changed behind the cache, as by another instance
+        mongoTemplate.updateFirst(Query.query(Criteria.where("login").is(DEFAULT_LOGIN)),
+            Update.update("first_name", "jane").set("last_modified_date", version.plusSeconds(1)), User.class);
+
+        assertThat(userService.getAccount(null).get().getFirstName()).isEqualTo(DEFAULT_FIRSTNAME);
+        assertThat(userService.getAccount(version).get().getFirstName()).isEqualTo(DEFAULT_FIRSTNAME);
+        assertThat(userService.getAccount(version.plusSeconds(1)).get().getFirstName()).isEqualTo("jane");
+    }
+
+    @Test
+    @WithMockUser(DEFAULT_LOGIN)
+    public void assertThatAccountCacheIsEvictedOnSave() {
+        userRepository.save(user);
+        userService.getAccountByLogin(DEFAULT_LOGIN);
+
+        user.setFirstName("jane");
+        userRepository.save(user);
+
+        assertThat(userService.getAccount(null).get().getFirstName()).isEqualTo("jane");
+    }
+
+    @Test
+    @WithMockUser(DEFAULT_LOGIN)
+    public void assertThatAccountCacheOfThePreviousLoginIsEvicted() {
+        userRepository.save(user);
+        userService.getAccountByLogin(DEFAULT_LOGIN);
+
+        UserDTO userDTO = new UserDTO(user);
+        userDTO.setLogin("janedoe");
+        userService.updateUser(userDTO);
+
+        assertThat(userService.getAccount(null)).isNotPresent();
+    }
 }
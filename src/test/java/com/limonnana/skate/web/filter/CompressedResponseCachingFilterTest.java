@@ -0,0 +1,122 @@
+package com.limonnana.skate.web.filter;
+
+import com.limonnana.skate.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link CompressedResponseCachingFilter}.
+ */
+public class CompressedResponseCachingFilterTest {
+
+    private static final String BODY = "{\"name\":\"" + new String(new char[2000]).replace('\0', 'a') + "\"}";
+
+    private CompressedResponseCachingFilter filter;
+
+    private int calls;
+
+    private final FilterChain chain = (request, response) -> {
+        calls++;
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    public void setup() {
+        filter = new CompressedResponseCachingFilter(new ApplicationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testGzipsWithAnEtag() throws Exception {
+        MockHttpServletResponse response = perform("/api/event/active", "gzip, deflate", null);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("W/\"");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length).isLessThan(BODY.length());
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(BODY);
+    }
+
+    @Test
+    public void testServesTheSameCompressedBody() throws Exception {
+        MockHttpServletResponse first = perform("/api/trick/1", "gzip", null);
+        MockHttpServletResponse second = perform("/api/trick/1", "gzip", null);
+
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+    }
+
+    @Test
+    public void testEachMediaTypeHasItsOwnEtag() throws Exception {
+        MockHttpServletResponse json = perform("/api/trick/1", "gzip", null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trick/1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse cbor = new MockHttpServletResponse();
+        filter.doFilter(request, cbor, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_CBOR_VALUE);
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(cbor.getHeader(HttpHeaders.ETAG)).isNotEqualTo(json.getHeader(HttpHeaders.ETAG));
+        assertThat(cbor.getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        String etag = perform("/api/event/active", "gzip", null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = perform("/api/event/active", "gzip", etag);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    @Test
+    public void testIdentityWhenGzipIsNotAccepted() throws Exception {
+        MockHttpServletResponse response = perform("/api/event/active", "gzip;q=0, br", null);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    public void testOtherPathsAreLeftAlone() throws Exception {
+        MockHttpServletResponse response = perform("/api/events", "gzip", null);
+
+        assertThat(calls).isEqualTo(1);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    private MockHttpServletResponse perform(String uri, String acceptEncoding, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String gunzip(byte[] body) throws Exception {
+        return StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8);
+    }
+}
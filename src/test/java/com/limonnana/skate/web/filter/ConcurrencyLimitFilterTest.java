@@ -0,0 +1,102 @@
+package com.limonnana.skate.web.filter;
+
+import com.limonnana.skate.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link ConcurrencyLimitFilter}.
+ */
+public class ConcurrencyLimitFilterTest {
+
+    private long now;
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Throttling.Concurrency concurrency = applicationProperties.getThrottling().getConcurrency();
+        concurrency.setInitialLimit(2);
+        concurrency.setMinLimit(1);
+        concurrency.setMaxLimit(4);
+        concurrency.setMaxLatency(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(applicationProperties, meterRegistry, () -> now);
+    }
+
+    @Test
+    public void testShedsPastTheLimit() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        // The second request is performed while the first one is still in flight, and so on
+        perform("/api/register", (request, response) ->
+            perform("/api/register", (request2, response2) ->
+                nested.set(perform("/api/register", (request3, response3) -> { }))));
+
+        assertThat(nested.get().getStatus()).isEqualTo(503);
+        assertThat(meterRegistry.get("http.server.requests.throttled").tags("uri", "/api/register", "reason", "concurrency").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.concurrency.in.flight").tag("uri", "/api/register").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    public void testAdaptsTheLimitToLatency() throws Exception {
+        perform("/api/register", (request, response) -> now += Duration.ofMillis(200).toNanos());
+        assertThat(filter.getLimit("/api/register")).isEqualTo(1.8);
+
+        for (int i = 0; i < 20; i++) {
+            perform("/api/register", (request, response) -> now += Duration.ofMillis(200).toNanos());
+        }
+        assertThat(filter.getLimit("/api/register")).isEqualTo(1);
+
+        for (int i = 0; i < 100; i++) {
+            perform("/api/register", (request, response) -> now += Duration.ofMillis(10).toNanos());
+        }
+        assertThat(filter.getLimit("/api/register")).isEqualTo(4);
+    }
+
+    @Test
+    public void testEachPathHasItsOwnLimit() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            perform("/api/register", (request, response) -> now += Duration.ofMillis(200).toNanos());
+        }
+        assertThat(filter.getLimit("/api/register")).isEqualTo(1);
+        assertThat(filter.getLimit("/api/event/active")).isEqualTo(2);
+
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        perform("/api/register", (request, response) ->
+            nested.set(perform("/api/event/active", (request2, response2) -> { })));
+        assertThat(nested.get().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testOtherPathsAreNotCounted() throws Exception {
+        perform("/api/account", (request, response) -> now += Duration.ofMillis(200).toNanos());
+
+        assertThat(filter.getLimit("/api/register")).isEqualTo(2);
+    }
+
+    private MockHttpServletResponse perform(String uri, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,77 @@
+package com.limonnana.skate.web.filter;
+
+import com.limonnana.skate.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link RateLimitFilter}.
+ */
+public class RateLimitFilterTest {
+
+    private long now;
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getThrottling().getRateLimit().setRoutes(Collections.singletonList(
+            new ApplicationProperties.Throttling.RateLimit.Route("/api/register", 2, Duration.ofMinutes(1))));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(applicationProperties, meterRegistry, () -> now);
+    }
+
+    @Test
+    public void testBurstThenRefill() throws Exception {
+        assertThat(perform("/api/register", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("/api/register", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse throttled = perform("/api/register", "10.0.0.1");
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(throttled.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        assertThat(meterRegistry.get("http.server.requests.throttled").tag("uri", "/api/register").counter().count()).isEqualTo(1);
+
+        now += Duration.ofSeconds(30).toNanos();
+        assertThat(perform("/api/register", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("/api/register", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    public void testBucketPerClient() throws Exception {
+        perform("/api/register", "10.0.0.1");
+        perform("/api/register", "10.0.0.1");
+
+        assertThat(perform("/api/register", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(perform("/api/register", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testOtherRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("/api/account", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse perform(String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
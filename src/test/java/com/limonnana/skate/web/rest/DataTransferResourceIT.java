@@ -0,0 +1,175 @@
+package com.limonnana.skate.web.rest;
+
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.domain.Authority;
+import com.limonnana.skate.domain.Trick;
+import com.limonnana.skate.domain.User;
+import com.limonnana.skate.repository.AuthorityRepository;
+import com.limonnana.skate.repository.TrickRepository;
+import com.limonnana.skate.repository.UserRepository;
+import com.limonnana.skate.security.AuthoritiesConstants;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link DataTransferResource} REST controller.
+ */
+@SpringBootTest(classes = Skate03App.class)
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+public class DataTransferResourceIT {
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private MockMvc restDataTransferMockMvc;
+
+    @BeforeEach
+    public void initTest() {
+        trickRepository.deleteAll();
+    }
+
+    @Test
+    public void exportAndImportTricks() throws Exception {
+        Trick trick = trickRepository.save(TrickResourceIT.createEntity());
+
+        String export = restDataTransferMockMvc.perform(get("/management/export?collections=trick"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(DataTransferResource.NDJSON_VALUE))
+            .andExpect(content().string(containsString(trick.getId())))
+            .andReturn().getResponse().getContentAsString();
+        assertThat(export.split("\n")).hasSize(1);
+
+        trickRepository.deleteAll();
+        restDataTransferMockMvc.perform(post("/management/import")
+            .contentType(DataTransferResource.NDJSON_VALUE)
+            .content(export))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.trick").value(1));
+
+        Trick imported = trickRepository.findById(trick.getId()).get();
+        assertThat(imported.getName()).isEqualTo(trick.getName());
+        assertThat(imported.getObjectiveAmount()).isEqualTo(trick.getObjectiveAmount());
+
+        // The ids already exist, so importing again inserts nothing
+        restDataTransferMockMvc.perform(post("/management/import")
+            .contentType(DataTransferResource.NDJSON_VALUE)
+            .content(export))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.trick").value(0));
+        assertThat(trickRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void exportAndImportUsersWithoutCredentials() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setResetKey("resetkey");
+        authorityRepository.findById(AuthoritiesConstants.ADMIN).ifPresent(user.getAuthorities()::add);
+        user = userRepository.save(user);
+
+        String export = restDataTransferMockMvc.perform(get("/management/export?collections=jhi_user"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString(user.getId())))
+            .andExpect(content().string(not(containsString(user.getPassword()))))
+            .andExpect(content().string(not(containsString("resetkey"))))
+            .andExpect(content().string(not(containsString(AuthoritiesConstants.ADMIN))))
+            .andReturn().getResponse().getContentAsString();
+
+        userRepository.delete(user);
+        restDataTransferMockMvc.perform(post("/management/import")
+            .contentType(DataTransferResource.NDJSON_VALUE)
+            .content(export))
+            .andExpect(status().isOk());
+
+        User imported = userRepository.findById(user.getId()).get();
+        assertThat(imported.getLogin()).isEqualTo(user.getLogin());
+        assertThat(imported.getPassword()).hasSize(60).isNotEqualTo(user.getPassword());
+        assertThat(imported.getResetKey()).isNull();
+        assertThat(imported.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+        userRepository.delete(imported);
+    }
+
+    @Test
+    public void importUserWithUsedPhoneIsReported() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setPhone("0501234567");
+        user.setPhoneKey("0501234567");
+        user = userRepository.save(user);
+        String export = restDataTransferMockMvc.perform(get("/management/export?collections=jhi_user"))
+            .andReturn().getResponse().getContentAsString();
+        userRepository.delete(user);
+
+        User other = UserResourceIT.createEntity();
+        other.setLogin("other");
+        other.setEmail("other@localhost");
+        other.setPhone("0501234567");
+        other.setPhoneKey("0501234567");
+        other = userRepository.save(other);
+
+        restDataTransferMockMvc.perform(post("/management/import")
+            .contentType(DataTransferResource.NDJSON_VALUE)
+            .content(export))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value(containsString(user.getId())));
+
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        userRepository.delete(other);
+    }
+
+    @Test
+    public void exportUnknownCollectionIsRejected() throws Exception {
+        restDataTransferMockMvc.perform(get("/management/export?collections=jhi_authority"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void importInvalidLineIsRejected() throws Exception {
+        restDataTransferMockMvc.perform(post("/management/import")
+            .contentType(DataTransferResource.NDJSON_VALUE)
+            .content("{\"collection\": \"jhi_authority\", \"document\": {}}\n"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void importStopsAtInvalidLineAfterImportingThePreviousOnes() throws Exception {
+        Trick trick = trickRepository.save(TrickResourceIT.createEntity());
+        String export = restDataTransferMockMvc.perform(get("/management/export?collections=trick"))
+            .andReturn().getResponse().getContentAsString();
+        trickRepository.deleteAll();
+
+        restDataTransferMockMvc.perform(post("/management/import")
+            .contentType(DataTransferResource.NDJSON_VALUE)
+            .content(export + "not json\n"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value(containsString("trick=1")));
+
+        assertThat(trickRepository.findById(trick.getId())).isPresent();
+    }
+
+    @Test
+    @WithMockUser
+    public void exportRequiresAdmin() throws Exception {
+        restDataTransferMockMvc.perform(get("/management/export"))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -2,7 +2,13 @@ package com.limonnana.skate.web.rest;
 
 import com.limonnana.skate.Skate03App;
 import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.domain.EventPlayers;
+import com.limonnana.skate.domain.EventTricks;
+import com.limonnana.skate.domain.Player;
+import com.limonnana.skate.domain.Trick;
 import com.limonnana.skate.repository.EventRepository;
+import com.limonnana.skate.repository.PlayerRepository;
+import com.limonnana.skate.repository.TrickRepository;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +21,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -42,6 +50,12 @@ public class EventResourceIT {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
     @Autowired
     private MockMvc restEventMockMvc;
 
@@ -230,4 +244,136 @@ public class EventResourceIT {
         List<Event> eventList = eventRepository.findAll();
         assertThat(eventList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    public void addTricks() throws Exception {
+        // Initialize the database
+        eventRepository.save(event);
+        Trick first = trickRepository.save(new Trick().name("first"));
+        Trick second = trickRepository.save(new Trick().name("second"));
+
+        EventTricks eventTricks = new EventTricks();
+        eventTricks.setIdEvent(event.getId());
+        eventTricks.setIdTricks(Arrays.asList(first.getId(), second.getId(), first.getId(), "unknown"));
+
+        restEventMockMvc.perform(put("/api/events/addTricks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(eventTricks)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tricks.[*].id").value(hasItem(first.getId())))
+            .andExpect(jsonPath("$.tricks.[*].id").value(hasItem(second.getId())));
+
+        Event testEvent = eventRepository.findById(event.getId()).get();
+        assertThat(testEvent.getTricks()).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    public void removeTricks() throws Exception {
+        // Initialize the database
+        Trick first = trickRepository.save(new Trick().name("first"));
+        Trick second = trickRepository.save(new Trick().name("second"));
+        event.addTrick(first).addTrick(second);
+        eventRepository.save(event);
+
+        EventTricks eventTricks = new EventTricks();
+        eventTricks.setIdEvent(event.getId());
+        eventTricks.setIdTricks(Collections.singletonList(first.getId()));
+
+        restEventMockMvc.perform(put("/api/events/removeTricks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(eventTricks)))
+            .andExpect(status().isOk());
+
+        Event testEvent = eventRepository.findById(event.getId()).get();
+        assertThat(testEvent.getTricks()).containsExactly(second);
+    }
+
+    @Test
+    public void addTricksToNonExistingEvent() throws Exception {
+        Trick trick = trickRepository.save(new Trick().name("first"));
+
+        EventTricks eventTricks = new EventTricks();
+        eventTricks.setIdEvent(Long.toString(Long.MAX_VALUE));
+        eventTricks.setIdTricks(Collections.singletonList(trick.getId()));
+
+        restEventMockMvc.perform(put("/api/events/addTricks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(eventTricks)))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void addPlayers() throws Exception {
+        // Initialize the database
+        eventRepository.save(event);
+        Player first = playerRepository.save(PlayerResourceIT.createEntity());
+        Player second = playerRepository.save(PlayerResourceIT.createEntity());
+
+        EventPlayers eventPlayers = new EventPlayers();
+        eventPlayers.setIdEvent(event.getId());
+        eventPlayers.setIdPlayers(Arrays.asList(first.getId(), second.getId(), first.getId(), "unknown"));
+
+        restEventMockMvc.perform(put("/api/events/addPlayers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(eventPlayers)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.players.[*].id").value(hasItem(first.getId())))
+            .andExpect(jsonPath("$.players.[*].id").value(hasItem(second.getId())));
+
+        Event testEvent = eventRepository.findById(event.getId()).get();
+        assertThat(testEvent.getPlayers()).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    public void addUnknownPlayers() throws Exception {
+        // Initialize the database
+        eventRepository.save(event);
+
+        EventPlayers eventPlayers = new EventPlayers();
+        eventPlayers.setIdEvent(event.getId());
+        eventPlayers.setIdPlayers(Arrays.asList("unknown", Long.toString(Long.MAX_VALUE)));
+
+        restEventMockMvc.perform(put("/api/events/addPlayers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(eventPlayers)))
+            .andExpect(status().isOk());
+
+        Event testEvent = eventRepository.findById(event.getId()).get();
+        assertThat(testEvent.getPlayers()).isEmpty();
+    }
+
+    @Test
+    public void removePlayers() throws Exception {
+        // Initialize the database
+        Player first = playerRepository.save(PlayerResourceIT.createEntity());
+        Player second = playerRepository.save(PlayerResourceIT.createEntity());
+        event.addPlayer(first).addPlayer(second);
+        eventRepository.save(event);
+
+        EventPlayers eventPlayers = new EventPlayers();
+        eventPlayers.setIdEvent(event.getId());
+        eventPlayers.setIdPlayers(Arrays.asList(first.getId(), "unknown"));
+
+        restEventMockMvc.perform(put("/api/events/removePlayers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(eventPlayers)))
+            .andExpect(status().isOk());
+
+        Event testEvent = eventRepository.findById(event.getId()).get();
+        assertThat(testEvent.getPlayers()).containsExactly(second);
+    }
+
+    @Test
+    public void addPlayersToNonExistingEvent() throws Exception {
+        Player player = playerRepository.save(PlayerResourceIT.createEntity());
+
+        EventPlayers eventPlayers = new EventPlayers();
+        eventPlayers.setIdEvent(Long.toString(Long.MAX_VALUE));
+        eventPlayers.setIdPlayers(Collections.singletonList(player.getId()));
+
+        restEventMockMvc.perform(put("/api/events/addPlayers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(eventPlayers)))
+            .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,203 @@
+package com.limonnana.skate.web.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.domain.Event;
+import com.limonnana.skate.domain.Seccion;
+import com.limonnana.skate.domain.Trick;
+import com.limonnana.skate.domain.User;
+import com.limonnana.skate.repository.EventRepository;
+import com.limonnana.skate.repository.TrickRepository;
+import com.limonnana.skate.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link OpenResource} REST controller.
+ */
+@SpringBootTest(classes = Skate03App.class)
+@AutoConfigureMockMvc
+@WithUnauthenticatedMockUser
+public class OpenResourceIT {
+
+    private static final String DEFAULT_NAME = "AAAAAAAAAA";
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc restOpenMockMvc;
+
+    private User user;
+
+    @BeforeEach
+    public void initTest() {
+        eventRepository.deleteAll();
+        trickRepository.deleteAll();
+        userRepository.deleteAll();
+        user = UserResourceIT.createEntity();
+        userRepository.save(user);
+    }
+
+    @Test
+    public void getActiveEventResolvesReferences() throws Exception {
+        // Initialize the database
+        Seccion seccion = new Seccion();
+        seccion.setUser(user);
+        seccion.setShekel(10);
+        Trick trick = new Trick().name(DEFAULT_NAME);
+        trick.getSecciones().add(seccion);
+        trickRepository.save(trick);
+        Event event = new Event().name(DEFAULT_NAME).addTrick(trick);
+        event.setActive(true);
+        eventRepository.save(event);
+        eventRepository.save(new Event().name("inactive"));
+
+        MvcResult result = restOpenMockMvc.perform(get("/api/event/active"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restOpenMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(event.getId()))
+            .andExpect(jsonPath("$.tricks[0].id").value(trick.getId()))
+            .andExpect(jsonPath("$.tricks[0].secciones[0].user.login").value(user.getLogin()));
+    }
+
+    @Test
+    public void getActiveEventWhenNoneIsActive() throws Exception {
+        eventRepository.save(new Event().name(DEFAULT_NAME));
+
+        MvcResult result = restOpenMockMvc.perform(get("/api/event/active"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restOpenMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getTrick() throws Exception {
+        Trick trick = trickRepository.save(new Trick().name(DEFAULT_NAME));
+
+        MvcResult result = restOpenMockMvc.perform(get("/api/trick/{id}", trick.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restOpenMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(trick.getId()))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
+    }
+
+    @Test
+    public void getNonExistingTrick() throws Exception {
+        MvcResult result = restOpenMockMvc.perform(get("/api/trick/{id}", Long.MAX_VALUE))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restOpenMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getActiveEventInBinaryFormats() throws Exception {
+        // Initialize the database
+        Trick trick = new Trick().name(DEFAULT_NAME);
+        trick.getSecciones().add(seccion(user, 10));
+        trickRepository.save(trick);
+        Event event = new Event().name(DEFAULT_NAME).addTrick(trick);
+        event.setActive(true);
+        eventRepository.save(event);
+
+        JsonNode json = read("/api/event/active", MediaType.APPLICATION_JSON, new ObjectMapper());
+
+        assertThat(read("/api/event/active", MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()))).isEqualTo(json);
+        assertThat(read("/api/event/active", SMILE, new ObjectMapper(new SmileFactory()))).isEqualTo(json);
+    }
+
+    @Test
+    public void getTrickInBinaryFormats() throws Exception {
+        Trick trick = new Trick().name(DEFAULT_NAME);
+        trick.getSecciones().add(seccion(user, 10));
+        trickRepository.save(trick);
+        String url = "/api/trick/" + trick.getId();
+
+        JsonNode json = read(url, MediaType.APPLICATION_JSON, new ObjectMapper());
+
+        assertThat(read(url, MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()))).isEqualTo(json);
+        assertThat(read(url, SMILE, new ObjectMapper(new SmileFactory()))).isEqualTo(json);
+    }
+
+    @Test
+    public void getTrickLeaderboard() throws Exception {
+        // Initialize the database
+        User other = UserResourceIT.createEntity();
+        other.setLogin("other");
+        other.setEmail("other@localhost");
+        userRepository.save(other);
+        Trick trick = new Trick().name(DEFAULT_NAME);
+        trick.getSecciones().add(seccion(user, 10));
+        trick.getSecciones().add(seccion(other, 15));
+        trick.getSecciones().add(seccion(user, 20));
+        trickRepository.save(trick);
+
+        restOpenMockMvc.perform(get("/api/trick/{id}/leaderboard?size=1", trick.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].login").value(user.getLogin()))
+            .andExpect(jsonPath("$[0].shekel").value(30))
+            .andExpect(jsonPath("$[0].contributions").value(2));
+
+        restOpenMockMvc.perform(get("/api/trick/{id}/leaderboard", trick.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[1].login").value("other"))
+            .andExpect(jsonPath("$[1].shekel").value(15));
+    }
+
+    private JsonNode read(String url, MediaType mediaType, ObjectMapper mapper) throws Exception {
+        MvcResult result = restOpenMockMvc.perform(get(url).accept(mediaType))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        MockHttpServletResponse response = restOpenMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(mediaType))
+            .andReturn().getResponse();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+        return mapper.readTree(response.getContentAsByteArray());
+    }
+
+    private static Seccion seccion(User user, int shekel) {
+        Seccion seccion = new Seccion();
+        seccion.setUser(user);
+        seccion.setShekel(shekel);
+        return seccion;
+    }
+}
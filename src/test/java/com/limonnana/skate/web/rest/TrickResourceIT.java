@@ -1,6 +1,10 @@
 package com.limonnana.skate.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.limonnana.skate.Skate03App;
+import com.limonnana.skate.config.Constants;
+import com.limonnana.skate.domain.Seccion;
 import com.limonnana.skate.domain.Trick;
 import com.limonnana.skate.repository.TrickRepository;
 
@@ -9,6 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -43,6 +49,9 @@ public class TrickResourceIT {
     @Autowired
     private MockMvc restTrickMockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private Trick trick;
 
     /**
@@ -145,9 +154,41 @@ public class TrickResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(trick.getId())))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
             .andExpect(jsonPath("$.[*].objectiveAmount").value(hasItem(DEFAULT_OBJECTIVE_AMOUNT)))
-            .andExpect(jsonPath("$.[*].currentAmount").value(hasItem(DEFAULT_CURRENT_AMOUNT)));
+            .andExpect(jsonPath("$.[*].currentAmount").value(hasItem(DEFAULT_CURRENT_AMOUNT)))
+            .andExpect(header().string("X-Total-Count", String.valueOf(trickRepository.count())));
+    }
+
+    @Test
+    public void getAllTricksWithoutCount() throws Exception {
+        // Initialize the database
+        trickRepository.save(trick);
+        trickRepository.save(createUpdatedEntity());
+
+        // Get a page of the trickList, without counting all the tricks
+        restTrickMockMvc.perform(get("/api/tricks?sort=id,desc&size=1&count=false"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(header().doesNotExist("X-Total-Count"));
+    }
+
+    @Test
+    public void getAllTricksInBinaryFormats() throws Exception {
+        // Initialize the database
+        trickRepository.save(trick);
+
+        byte[] json = restTrickMockMvc.perform(get("/api/tricks?sort=id,desc&count=false").accept(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = restTrickMockMvc.perform(get("/api/tricks?sort=id,desc&count=false").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor)).isEqualTo(new ObjectMapper().readTree(json));
+        restTrickMockMvc.perform(get("/api/tricks").accept(MediaType.APPLICATION_XML))
+            .andExpect(status().isNotAcceptable());
     }
-    
+
     @Test
     public void getTrick() throws Exception {
         // Initialize the database
@@ -212,6 +253,98 @@ public class TrickResourceIT {
         assertThat(trickList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    public void patchTrick() throws Exception {
+        // Initialize the database
+        Seccion seccion = new Seccion();
+        seccion.setShekel(1);
+        trick.getSecciones().add(seccion);
+        trickRepository.save(trick);
+
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", trick.getId())
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"name\":\"" + UPDATED_NAME + "\",\"objectiveAmount\":4}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+
+        // Validate the Trick in the database, the amounts follow the new objective
+        Trick testTrick = trickRepository.findById(trick.getId()).get();
+        assertThat(testTrick.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testTrick.getObjectiveAmount()).isEqualTo(4);
+        assertThat(testTrick.getCurrentAmount()).isEqualTo(1);
+        assertThat(testTrick.getPercentageCovered()).isEqualTo(25);
+        assertThat(testTrick.getPercentageToGo()).isEqualTo(75);
+        assertThat(testTrick.getSecciones()).hasSize(1);
+        assertThat(testTrick.getSecciones().iterator().next().getPorcentaje()).isEqualTo(25);
+    }
+
+    @Test
+    public void patchTrickKeepsObjectiveAboveContributions() throws Exception {
+        // Initialize the database
+        Seccion seccion = new Seccion();
+        seccion.setShekel(10);
+        trick.getSecciones().add(seccion);
+        trickRepository.save(trick);
+
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", trick.getId())
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"objectiveAmount\":5}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.objectiveAmount").value(10))
+            .andExpect(jsonPath("$.percentageCovered").value(100));
+    }
+
+    @Test
+    public void patchTrickEvictsCachedTrick() throws Exception {
+        // Initialize the database and the cache
+        trickRepository.save(trick);
+        trickRepository.findById(trick.getId());
+        Cache cache = cacheManager.getCache(TrickRepository.TRICKS_BY_ID_CACHE);
+        assertThat(cache.get(trick.getId())).isNotNull();
+
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", trick.getId())
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"name\":\"" + UPDATED_NAME + "\"}"))
+            .andExpect(status().isOk());
+
+        assertThat(cache.get(trick.getId())).isNull();
+        assertThat(trickRepository.findById(trick.getId()).get().getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    public void patchTrickWithInvalidField() throws Exception {
+        // Initialize the database
+        trickRepository.save(trick);
+
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", trick.getId())
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"secciones\":[]}"))
+            .andExpect(status().isBadRequest());
+
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", trick.getId())
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"currentAmount\":" + UPDATED_CURRENT_AMOUNT + "}"))
+            .andExpect(status().isBadRequest());
+
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", trick.getId())
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"objectiveAmount\":null}"))
+            .andExpect(status().isBadRequest());
+
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", trick.getId())
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"name\":null}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void patchNonExistingTrick() throws Exception {
+        restTrickMockMvc.perform(patch("/api/tricks/{id}", Long.MAX_VALUE)
+            .contentType(Constants.MERGE_PATCH_JSON_VALUE)
+            .content("{\"name\":\"" + UPDATED_NAME + "\"}"))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     public void deleteTrick() throws Exception {
         // Initialize the database
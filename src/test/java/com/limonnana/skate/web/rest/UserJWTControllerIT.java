@@ -3,7 +3,10 @@ package com.limonnana.skate.web.rest;
 import com.limonnana.skate.Skate03App;
 import com.limonnana.skate.domain.User;
 import com.limonnana.skate.repository.UserRepository;
+import com.limonnana.skate.service.UserService;
 import com.limonnana.skate.web.rest.vm.LoginVM;
+import com.limonnana.skate.web.rest.vm.RefreshTokenVM;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -11,8 +14,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -35,6 +40,9 @@ public class UserJWTControllerIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -97,4 +105,85 @@ public class UserJWTControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    public void testRefreshThenLogout() throws Exception {
+        MvcResult authentication = authenticate("user-jwt-controller-refresh");
+        String refreshToken = JsonPath.read(authentication.getResponse().getContentAsString(), "$.refresh_token");
+
+        MvcResult refresh = mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(refreshTokenVM(refreshToken))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").value(refreshToken))
+            .andReturn();
+        String accessToken = JsonPath.read(refresh.getResponse().getContentAsString(), "$.id_token");
+
+        mockMvc.perform(get("/api/account").header("Authorization", "Bearer " + accessToken))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/logout").header("Authorization", "Bearer " + accessToken))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/account").header("Authorization", "Bearer " + accessToken))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(refreshTokenVM(refreshToken))))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    @Test
+    public void testRefreshWithAnAccessTokenFails() throws Exception {
+        MvcResult authentication = authenticate("user-jwt-controller-access");
+        String accessToken = JsonPath.read(authentication.getResponse().getContentAsString(), "$.id_token");
+
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(refreshTokenVM(accessToken))))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testDeletedUserTokensAreRevoked() throws Exception {
+        MvcResult authentication = authenticate("user-jwt-controller-deleted");
+        String accessToken = JsonPath.read(authentication.getResponse().getContentAsString(), "$.id_token");
+        String refreshToken = JsonPath.read(authentication.getResponse().getContentAsString(), "$.refresh_token");
+
+        userService.deleteUser("user-jwt-controller-deleted");
+
+        mockMvc.perform(get("/api/account").header("Authorization", "Bearer " + accessToken))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(refreshTokenVM(refreshToken))))
+            .andExpect(status().isUnauthorized());
+    }
+
+    private MvcResult authenticate(String username) throws Exception {
+        User user = new User();
+        user.setLogin(username);
+        user.setEmail(username + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        userRepository.save(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword("test");
+        return mockMvc.perform(post("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andReturn();
+    }
+
+    private static RefreshTokenVM refreshTokenVM(String refreshToken) {
+        RefreshTokenVM refreshTokenVM = new RefreshTokenVM();
+        refreshTokenVM.setRefreshToken(refreshToken);
+        return refreshTokenVM;
+    }
 }
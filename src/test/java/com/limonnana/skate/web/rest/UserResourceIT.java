@@ -2,9 +2,14 @@ package com.limonnana.skate.web.rest;
 
 import com.limonnana.skate.Skate03App;
 import com.limonnana.skate.domain.Authority;
+import com.limonnana.skate.domain.ContributionForm;
+import com.limonnana.skate.domain.Trick;
 import com.limonnana.skate.domain.User;
+import com.limonnana.skate.repository.IdempotentRequestRepository;
+import com.limonnana.skate.repository.TrickRepository;
 import com.limonnana.skate.repository.UserRepository;
 import com.limonnana.skate.security.AuthoritiesConstants;
+import com.limonnana.skate.service.IdempotencyService;
 import com.limonnana.skate.service.dto.UserDTO;
 import com.limonnana.skate.service.mapper.UserMapper;
 import com.limonnana.skate.web.rest.vm.ManagedUserVM;
@@ -56,6 +61,8 @@ public class UserResourceIT {
     private static final String DEFAULT_IMAGEURL = "http://placehold.it/50x50";
     private static final String UPDATED_IMAGEURL = "http://placehold.it/40x40";
 
+    private static final String DEFAULT_PHONE = "0541234567";
+
     private static final String DEFAULT_LANGKEY = "en";
     private static final String UPDATED_LANGKEY = "fr";
 
@@ -65,6 +72,12 @@ public class UserResourceIT {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
     @Autowired
     private MockMvc restUserMockMvc;
 
@@ -445,6 +458,39 @@ public class UserResourceIT {
             .andExpect(jsonPath("$").value(hasItems(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)));
     }
 
+    @Test
+    public void createContributionWithIdempotencyKeyIsAppliedOnce() throws Exception {
+        user.setPhone(DEFAULT_PHONE);
+        user.setLogin(DEFAULT_PHONE);
+        userRepository.save(user);
+        trickRepository.deleteAll();
+        idempotentRequestRepository.deleteAll();
+        Trick trick = trickRepository.save(TrickResourceIT.createEntity());
+
+        ContributionForm contributionForm = new ContributionForm();
+        contributionForm.setTrick(trick);
+        contributionForm.setAmount("1");
+        contributionForm.setPhone(DEFAULT_PHONE);
+
+        for (int i = 0; i < 2; i++) {
+            restUserMockMvc.perform(post("/api/users/contribution")
+                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "contribution-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(contributionForm)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.login").value(DEFAULT_PHONE));
+        }
+
+        assertThat(trickRepository.findById(trick.getId()).get().getSecciones()).hasSize(1);
+
+        contributionForm.setAmount("2");
+        restUserMockMvc.perform(post("/api/users/contribution")
+            .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "contribution-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(contributionForm)))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testUserEquals() throws Exception {
         TestUtil.equalsVerifier(User.class);